@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Замер времени старта и RSS приложения: профиль faststart без AOT/CDS и с ними.
+# Использование: startup-benchmark.sh <каталог с распакованным jar> [число запусков]
+# Нужна доступная БД из application-faststart.properties: приложение стартует полностью.
+set -euo pipefail
+
+DIR=${1:?"каталог с распакованным приложением"}
+RUNS=${2:-3}
+JAR=$(ls "$DIR"/*.jar | head -n 1)
+ARCHIVE="$DIR/shareit.jsa"
+REPORT="$DIR/../startup-benchmark.txt"
+TIMEOUT=60
+
+run_once() {
+    local log
+    log=$(mktemp)
+    java "$@" -Dspring.profiles.active=faststart -jar "$JAR" --server.port=0 >"$log" 2>&1 &
+    local pid=$!
+
+    local waited=0
+    until grep -q "Started ShareItApp in" "$log"; do
+        if ! kill -0 "$pid" 2>/dev/null || [ "$waited" -ge $((TIMEOUT * 10)) ]; then
+            kill "$pid" 2>/dev/null || true
+            echo "ошибка старта, лог: $log" >&2
+            return 1
+        fi
+        sleep 0.1
+        waited=$((waited + 1))
+    done
+
+    local seconds rss
+    seconds=$(grep -o "Started ShareItApp in [0-9.]*" "$log" | awk '{print $4}')
+    rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    rm -f "$log"
+    echo "$seconds $((rss / 1024))"
+}
+
+measure() {
+    local name=$1
+    shift
+    local total_seconds=0 total_rss=0
+    for _ in $(seq "$RUNS"); do
+        read -r seconds rss < <(run_once "$@")
+        total_seconds=$(awk -v a="$total_seconds" -v b="$seconds" 'BEGIN {print a + b}')
+        total_rss=$((total_rss + rss))
+    done
+    local avg_seconds
+    avg_seconds=$(awk -v t="$total_seconds" -v n="$RUNS" 'BEGIN {print t / n}')
+    printf "%-24s %8.3f s %8d MB\n" "$name" "$avg_seconds" $((total_rss / RUNS))
+}
+
+{
+    echo "Среднее по $RUNS запускам"
+    printf "%-24s %10s %11s\n" "режим" "старт" "RSS"
+    measure "faststart"
+    measure "faststart + AOT" -Dspring.aot.enabled=true
+    if [ -f "$ARCHIVE" ]; then
+        measure "faststart + AOT + CDS" -Dspring.aot.enabled=true -XX:SharedArchiveFile="$ARCHIVE"
+    fi
+} | tee "$REPORT"
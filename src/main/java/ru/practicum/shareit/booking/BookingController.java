@@ -3,8 +3,14 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingField;
+import ru.practicum.shareit.booking.dto.CompactBookingListDto;
+import ru.practicum.shareit.booking.dto.PendingBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.service.ApprovalQueueService;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.status.BookingStatus;
 import java.util.List;
@@ -15,6 +21,7 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final ApprovalQueueService approvalQueueService;
 
     @PostMapping
     public BookingDto createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -31,19 +38,56 @@ public class BookingController {
 
     @GetMapping("/{bookingId}")
     public BookingDto getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                 @PathVariable Long bookingId) {
+                                 @PathVariable Long bookingId,
+                                 WebRequest request) {
+        String etag = bookingService.getBookingEtag(userId, bookingId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         return bookingService.getBookingById(userId, bookingId);
     }
 
     @GetMapping
     public List<BookingDto> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                        @RequestParam(defaultValue = "ALL") BookingStatus status) {
-        return bookingService.getBookingsByUser(userId, status);
+                                        @RequestParam(defaultValue = "ALL") BookingStatus status,
+                                        @RequestParam(required = false) List<String> include) {
+        return bookingService.getBookingsByUser(userId, status, BookingField.parse(include));
+    }
+
+    @GetMapping(produces = CompactBookingListDto.MEDIA_TYPE)
+    public CompactBookingListDto getBookingsCompact(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @RequestParam(defaultValue = "ALL") BookingStatus status) {
+        return BookingMapper.toCompactBookingList(bookingService.getBookingsByUser(userId, status, BookingField.all()));
     }
 
     @GetMapping("/owner")
     public List<BookingDto> getBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                               @RequestParam(defaultValue = "ALL") BookingStatus status) {
-        return bookingService.getBookingsByOwner(userId, status);
+                                               @RequestParam(defaultValue = "ALL") BookingStatus status,
+                                               @RequestParam(required = false) List<String> include) {
+        return bookingService.getBookingsByOwner(userId, status, BookingField.parse(include));
+    }
+
+    @GetMapping(path = "/owner", produces = CompactBookingListDto.MEDIA_TYPE)
+    public CompactBookingListDto getBookingsByOwnerCompact(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @RequestParam(defaultValue = "ALL") BookingStatus status) {
+        return BookingMapper.toCompactBookingList(bookingService.getBookingsByOwner(userId, status, BookingField.all()));
+    }
+
+    @GetMapping("/owner/queue")
+    public List<PendingBookingDto> getApprovalQueue(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @RequestParam(defaultValue = "0") int from,
+                                                    @RequestParam(defaultValue = "10") int size) {
+        return approvalQueueService.getQueue(userId, from, size);
+    }
+
+    @PostMapping("/owner/queue/approve")
+    public List<BookingDto> approveNext(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                        @RequestParam(defaultValue = "1") int count) {
+        return approvalQueueService.approveNext(userId, count);
+    }
+
+    @PostMapping("/owner/queue/reject-conflicting")
+    public List<BookingDto> rejectConflicting(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return approvalQueueService.rejectConflicting(userId);
     }
 }
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Вложенные объекты BookingDto, которые клиент может запросить через параметр include.
+ */
+public enum BookingField {
+    ITEM("item"),
+    BOOKER("booker");
+
+    private final String name;
+
+    BookingField(String name) {
+        this.name = name;
+    }
+
+    public static Set<BookingField> all() {
+        return EnumSet.allOf(BookingField.class);
+    }
+
+    public static Set<BookingField> parse(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return all();
+        }
+
+        Set<BookingField> fields = EnumSet.noneOf(BookingField.class);
+        for (String value : values) {
+            String trimmed = value.trim();
+            if (trimmed.isEmpty() || trimmed.equalsIgnoreCase("none")) {
+                continue;
+            }
+            fields.add(fromName(trimmed));
+        }
+        return fields;
+    }
+
+    private static BookingField fromName(String name) {
+        for (BookingField field : values()) {
+            if (field.name.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new ValidationException("Неизвестное поле бронирования: " + name);
+    }
+}
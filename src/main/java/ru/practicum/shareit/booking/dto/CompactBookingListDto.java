@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Нормализованный список бронирований: каждый предмет и пользователь передаются один раз,
+ * бронирования ссылаются на них по id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactBookingListDto {
+    public static final String MEDIA_TYPE = "application/vnd.shareit.compact+json";
+
+    private List<CompactBookingDto> bookings;
+    private Collection<ItemDto> items;
+    private Collection<UserDto> users;
+}
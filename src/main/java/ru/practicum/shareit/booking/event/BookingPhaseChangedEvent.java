@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.status.BookingPhase;
+
+import java.util.List;
+
+/**
+ * Публикуется после того, как бронирования перешли в новую фазу:
+ * CURRENT — аренда началась, PAST — аренда завершилась.
+ */
+@Value
+public class BookingPhaseChangedEvent {
+    List<Long> bookingIds;
+    BookingPhase phase;
+}
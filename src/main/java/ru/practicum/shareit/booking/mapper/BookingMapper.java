@@ -1,10 +1,25 @@
 package ru.practicum.shareit.booking.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingField;
+import ru.practicum.shareit.booking.dto.CompactBookingDto;
+import ru.practicum.shareit.booking.dto.CompactBookingListDto;
+import ru.practicum.shareit.booking.dto.PendingBookingDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingShortView;
+import ru.practicum.shareit.booking.repository.PendingBookingView;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 public class BookingMapper {
     public static BookingDto toBookingDto(Booking booking) {
         return new BookingDto(
@@ -16,4 +31,93 @@ public class BookingMapper {
                 booking.getStatus()
         );
     }
+
+    public static BookingDto toBookingDto(ArchivedBooking booking) {
+        return new BookingDto(
+                booking.getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                ItemMapper.toItemDto(booking.getItem()),
+                UserMapper.toUserDto(booking.getBooker()),
+                booking.getStatus()
+        );
+    }
+
+    /**
+     * Маппинг списка с учётом запрошенных полей. ItemDto и UserDto изменяемые, поэтому у каждого
+     * бронирования свои экземпляры, даже если предмет или пользователь повторяются.
+     */
+    public static List<BookingDto> toBookingDtos(List<Booking> bookings, Set<BookingField> fields) {
+        List<BookingDto> result = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            result.add(new BookingDto(
+                    booking.getId(),
+                    booking.getStart(),
+                    booking.getEnd(),
+                    fields.contains(BookingField.ITEM) ? ItemMapper.toItemDto(booking.getItem()) : null,
+                    fields.contains(BookingField.BOOKER) ? UserMapper.toUserDto(booking.getBooker()) : null,
+                    booking.getStatus()
+            ));
+        }
+        return result;
+    }
+
+    public static List<BookingDto> toArchivedBookingDtos(List<ArchivedBooking> bookings, Set<BookingField> fields) {
+        List<BookingDto> result = new ArrayList<>(bookings.size());
+        for (ArchivedBooking booking : bookings) {
+            result.add(new BookingDto(
+                    booking.getId(),
+                    booking.getStart(),
+                    booking.getEnd(),
+                    fields.contains(BookingField.ITEM) ? ItemMapper.toItemDto(booking.getItem()) : null,
+                    fields.contains(BookingField.BOOKER) ? UserMapper.toUserDto(booking.getBooker()) : null,
+                    booking.getStatus()
+            ));
+        }
+        return result;
+    }
+
+    public static BookingDto toBookingDto(BookingShortView booking) {
+        return new BookingDto(
+                booking.getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                null,
+                null,
+                booking.getStatus()
+        );
+    }
+
+    public static PendingBookingDto toPendingBookingDto(PendingBookingView booking) {
+        return new PendingBookingDto(
+                booking.getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getItemId(),
+                booking.getItemName(),
+                booking.getBookerId(),
+                booking.getConflicting()
+        );
+    }
+
+    public static CompactBookingListDto toCompactBookingList(List<BookingDto> bookings) {
+        List<CompactBookingDto> compact = new ArrayList<>(bookings.size());
+        Map<Long, ItemDto> items = new LinkedHashMap<>();
+        Map<Long, UserDto> users = new LinkedHashMap<>();
+
+        for (BookingDto booking : bookings) {
+            items.putIfAbsent(booking.getItem().getId(), booking.getItem());
+            users.putIfAbsent(booking.getBooker().getId(), booking.getBooker());
+            compact.add(new CompactBookingDto(
+                    booking.getId(),
+                    booking.getStart(),
+                    booking.getEnd(),
+                    booking.getItem().getId(),
+                    booking.getBooker().getId(),
+                    booking.getStatus()
+            ));
+        }
+
+        return new CompactBookingListDto(compact, items.values(), users.values());
+    }
 }
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.status.BookingPhase;
 import ru.practicum.shareit.booking.status.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -39,4 +40,16 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private BookingStatus status;
+
+    /**
+     * Фазу после вставки меняет только BookingLifecycleScheduler своим UPDATE, который не трогает version.
+     * Без updatable = false сохранение статуса перезаписывало бы фазу значением, прочитанным до перехода.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "phase", nullable = false, updatable = false)
+    private BookingPhase phase;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.status.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+
+    <T> List<T> findByBookerId(Long bookerId, Sort sort, Class<T> type);
+
+    <T> List<T> findByItemOwnerId(Long ownerId, Sort sort, Class<T> type);
+
+    <T> List<T> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Sort sort, Class<T> type);
+
+    <T> List<T> findByItemOwnerIdAndStatus(Long ownerId, BookingStatus status, Sort sort, Class<T> type);
+
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(Long bookerId, Long itemId,
+                                                            BookingStatus status, LocalDateTime end);
+
+    @Query("SELECT a.item.id AS itemId, a.start AS start, a.end AS end FROM ArchivedBooking a " +
+            "WHERE a.item.id = ?1 AND a.status = ?2 AND a.start < ?4 AND a.end > ?3 ORDER BY a.start")
+    List<BookingIntervalView> findIntervalsByItemId(Long itemId, BookingStatus status,
+                                                    LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT a.item.id AS itemId, a.start AS start, a.end AS end FROM ArchivedBooking a " +
+            "WHERE a.item.owner.id = ?1 AND a.status = ?2 AND a.start < ?4 AND a.end > ?3 " +
+            "ORDER BY a.item.id, a.start")
+    List<BookingIntervalView> findIntervalsByItemOwnerId(Long ownerId, BookingStatus status,
+                                                         LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT a FROM ArchivedBooking a WHERE a.item.id IN ?1 AND a.status = ?2 AND a.start = " +
+            "(SELECT MAX(x.start) FROM ArchivedBooking x WHERE x.item.id = a.item.id AND x.status = ?2)")
+    List<ArchivedBooking> findLatestByItemIdInAndStatus(Collection<Long> itemIds, BookingStatus status);
+
+    @Modifying
+    @Query(value = "INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status, archived_at) " +
+            "SELECT b.id, b.start_date, b.end_date, b.item_id, b.booker_id, b.status, ?2 " +
+            "FROM bookings b WHERE b.id IN ?1", nativeQuery = true)
+    int copyFromBookings(Collection<Long> ids, LocalDateTime archivedAt);
+
+    @Query(value = "SELECT a.id FROM bookings_archive a WHERE a.booker_id = ?1 LIMIT ?2", nativeQuery = true)
+    List<Long> findIdsByBookerId(Long bookerId, int limit);
+
+    @Query(value = "SELECT a.id FROM bookings_archive a JOIN items i ON i.id = a.item_id " +
+            "WHERE i.owner_id = ?1 LIMIT ?2", nativeQuery = true)
+    List<Long> findIdsByItemOwnerId(Long ownerId, int limit);
+
+    @Query("SELECT DISTINCT a.item.id FROM ArchivedBooking a WHERE a.id IN ?1")
+    List<Long> findItemIdsByIds(Collection<Long> ids);
+
+    @Query("SELECT 0L AS version, a.item.version AS itemVersion, a.booker.version AS bookerVersion, " +
+            "a.booker.id AS bookerId, a.item.owner.id AS ownerId FROM ArchivedBooking a WHERE a.id = ?1")
+    Optional<BookingVersionView> findVersionsById(Long id);
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.repository;
+
+import java.time.LocalDateTime;
+
+public interface BookingIntervalView {
+
+    Long getItemId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Заранее создаёт партиции таблицы bookings (PostgreSQL, RANGE по start_date),
+ * чтобы новые бронирования не попадали в партицию по умолчанию.
+ * На каждой партиции держит ограничение исключения, запрещающее пересечение одобренных
+ * бронирований одного предмета. На партиционированной таблице целиком такое ограничение
+ * не создать (в нём нет ключа партиционирования с равенством), поэтому пересечение бронирований,
+ * начинающихся в разных партициях, база не отсекает — это остаётся на ItemLocks.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking-partitions.enabled", havingValue = "true")
+public class BookingPartitionManager {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String EXISTING_PARTITIONS = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'bookings'";
+    private static final String DEFAULT_PARTITION = "bookings_default";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${shareit.booking-partitions.months-per-partition:1}")
+    private int monthsPerPartition;
+
+    @Value("${shareit.booking-partitions.premake:3}")
+    private int premake;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+        } catch (DataAccessException e) {
+            log.warn("Не удалось подключить расширение btree_gist, пересечения бронирований не ограничены в БД", e);
+        }
+        try {
+            createUpcomingPartitions();
+        } catch (IllegalStateException e) {
+            log.error("Приложение запущено без части партиций, они будут созданы повторно по расписанию", e);
+        }
+        for (String partition : jdbcTemplate.queryForList(EXISTING_PARTITIONS, String.class)) {
+            excludeApprovedOverlaps(partition);
+        }
+    }
+
+    @Scheduled(cron = "${shareit.booking-partitions.cron:0 0 3 * * *}")
+    public void createUpcomingPartitions() {
+        YearMonth from = alignedStart(YearMonth.now());
+        List<String> failed = new ArrayList<>();
+
+        for (int i = 0; i <= premake; i++) {
+            YearMonth start = from.plusMonths((long) i * monthsPerPartition);
+            try {
+                createPartition(start, start.plusMonths(monthsPerPartition));
+            } catch (DataAccessException e) {
+                log.error("Не удалось создать партицию с {}", start, e);
+                failed.add(start.format(SUFFIX));
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw new IllegalStateException("Не созданы партиции бронирований: " + failed);
+        }
+    }
+
+    private YearMonth alignedStart(YearMonth month) {
+        long index = month.getYear() * 12L + month.getMonthValue() - 1;
+        long aligned = index - Math.floorMod(index, monthsPerPartition);
+        return YearMonth.of((int) (aligned / 12), (int) (aligned % 12) + 1);
+    }
+
+    /**
+     * Партиция сначала создаётся отдельной таблицей, в неё переносятся строки диапазона
+     * из bookings_default, и только потом она подключается. Иначе CREATE ... PARTITION OF
+     * падает, если в партиции по умолчанию уже лежат бронирования с такими датами начала.
+     */
+    private void createPartition(YearMonth start, YearMonth end) {
+        String name = "bookings_p" + start.format(SUFFIX);
+        LocalDate from = start.atDay(1);
+        LocalDate to = end.atDay(1);
+
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+        if (!Boolean.TRUE.equals(exists)) {
+            Integer moved = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN ACCESS EXCLUSIVE MODE");
+                jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE bookings INCLUDING DEFAULTS)");
+                int rows = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " " +
+                        "WHERE start_date >= ? AND start_date < ? RETURNING *) " +
+                        "INSERT INTO " + name + " SELECT * FROM moved", from.atStartOfDay(), to.atStartOfDay());
+                jdbcTemplate.execute("ALTER TABLE bookings ATTACH PARTITION " + name + " " +
+                        "FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+                return rows;
+            });
+            log.info("Создана партиция {} [{}, {}), перенесено из {}: {}", name, from, to, DEFAULT_PARTITION, moved);
+        }
+        excludeApprovedOverlaps(name);
+    }
+
+    private void excludeApprovedOverlaps(String partition) {
+        String constraint = partition + "_no_approved_overlap";
+        try {
+            Integer existing = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_constraint WHERE conname = ?", Integer.class, constraint);
+            if (existing != null && existing > 0) {
+                return;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + partition + " ADD CONSTRAINT " + constraint + " " +
+                    "EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&) " +
+                    "WHERE (status = 'APPROVED')");
+        } catch (DataAccessException e) {
+            log.warn("Не удалось создать ограничение {} на партиции {}", constraint, partition, e);
+        }
+    }
+}
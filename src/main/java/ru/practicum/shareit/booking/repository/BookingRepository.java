@@ -1,42 +1,118 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.status.BookingPhase;
 import ru.practicum.shareit.booking.status.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findByBookerId(Long bookerId, Sort sort);
+    <T> List<T> findByBookerId(Long bookerId, Sort sort, Class<T> type);
 
-    List<Booking> findByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime end, Sort sort);
+    <T> List<T> findByBookerIdAndPhase(Long bookerId, BookingPhase phase, Sort sort, Class<T> type);
 
-    List<Booking> findByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime start, Sort sort);
+    <T> List<T> findByBookerIdAndPhaseAndStartLessThanEqual(Long bookerId, BookingPhase phase,
+                                                            LocalDateTime start, Sort sort, Class<T> type);
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = ?1 AND ?2 BETWEEN b.start AND b.end")
-    List<Booking> findByBookerIdAndCurrent(Long bookerId, LocalDateTime now, Sort sort);
+    <T> List<T> findByBookerIdAndPhaseAndStartAfter(Long bookerId, BookingPhase phase,
+                                                    LocalDateTime start, Sort sort, Class<T> type);
 
-    List<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Sort sort);
+    <T> List<T> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Sort sort, Class<T> type);
 
-    List<Booking> findByItemOwnerId(Long ownerId, Sort sort);
+    <T> List<T> findByItemOwnerId(Long ownerId, Sort sort, Class<T> type);
 
-    List<Booking> findByItemOwnerIdAndEndIsBefore(Long ownerId, LocalDateTime end, Sort sort);
+    <T> List<T> findByItemOwnerIdAndPhase(Long ownerId, BookingPhase phase, Sort sort, Class<T> type);
 
-    List<Booking> findByItemOwnerIdAndStartIsAfter(Long ownerId, LocalDateTime start, Sort sort);
+    <T> List<T> findByItemOwnerIdAndPhaseAndStartLessThanEqual(Long ownerId, BookingPhase phase,
+                                                               LocalDateTime start, Sort sort, Class<T> type);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = ?1 AND ?2 BETWEEN b.start AND b.end")
-    List<Booking> findByItemOwnerIdAndCurrent(Long ownerId, LocalDateTime now, Sort sort);
+    <T> List<T> findByItemOwnerIdAndPhaseAndStartAfter(Long ownerId, BookingPhase phase,
+                                                       LocalDateTime start, Sort sort, Class<T> type);
 
-    List<Booking> findByItemOwnerIdAndStatus(Long ownerId, BookingStatus status, Sort sort);
+    <T> List<T> findByItemOwnerIdAndStatus(Long ownerId, BookingStatus status, Sort sort, Class<T> type);
 
     List<Booking> findByItemIdInAndStatus(List<Long> itemIds, BookingStatus status);
 
-    List<Booking> findByBookerIdAndItemIdAndStatusAndEndBefore(Long bookerId, Long itemId,
-                                                               BookingStatus status, LocalDateTime end);
+    @Query("SELECT b.item.id AS itemId, b.start AS start, b.end AS end FROM Booking b " +
+            "WHERE b.item.id = ?1 AND b.status = ?2 AND b.start < ?4 AND b.end > ?3 ORDER BY b.start")
+    List<BookingIntervalView> findIntervalsByItemId(Long itemId, BookingStatus status,
+                                                    LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT b.item.id AS itemId, b.start AS start, b.end AS end FROM Booking b " +
+            "WHERE b.item.owner.id = ?1 AND b.status = ?2 AND b.start < ?4 AND b.end > ?3 " +
+            "ORDER BY b.item.id, b.start")
+    List<BookingIntervalView> findIntervalsByItemOwnerId(Long ownerId, BookingStatus status,
+                                                         LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS end, b.item.id AS itemId, b.item.name AS itemName, " +
+            "b.booker.id AS bookerId, " +
+            "CASE WHEN EXISTS (SELECT a.id FROM Booking a WHERE a.item.id = b.item.id AND a.status = ?3 " +
+            "AND a.start < b.end AND a.end > b.start) THEN true ELSE false END AS conflicting " +
+            "FROM Booking b WHERE b.item.owner.id = ?1 AND b.status = ?2 ORDER BY b.start, b.id")
+    List<PendingBookingView> findQueueByItemOwnerId(Long ownerId, BookingStatus pending, BookingStatus approved,
+                                                    Pageable pageable);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.item.owner.id = ?1 AND b.status = ?2 " +
+            "AND EXISTS (SELECT a.id FROM Booking a WHERE a.item.id = b.item.id AND a.status = ?3 " +
+            "AND a.start < b.end AND a.end > b.start)")
+    List<Long> findConflictingIdsByItemOwnerId(Long ownerId, BookingStatus pending, BookingStatus approved);
+
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(Long bookerId, Long itemId,
+                                                            BookingStatus status, LocalDateTime end);
+
+    @Query(value = "SELECT b.id FROM bookings b WHERE b.booker_id = ?1 LIMIT ?2", nativeQuery = true)
+    List<Long> findIdsByBookerId(Long bookerId, int limit);
+
+    @Query(value = "SELECT b.id FROM bookings b JOIN items i ON i.id = b.item_id " +
+            "WHERE i.owner_id = ?1 LIMIT ?2", nativeQuery = true)
+    List<Long> findIdsByItemOwnerId(Long ownerId, int limit);
+
+    @Query(value = "SELECT b.id FROM bookings b WHERE b.phase = 'PAST' AND b.end_date < ?1 LIMIT ?2",
+            nativeQuery = true)
+    List<Long> findIdsEndedBefore(LocalDateTime end, int limit);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking b WHERE b.id IN ?1")
+    List<Long> findItemIdsByIds(Collection<Long> ids);
+
+    @Query("SELECT b.item.id FROM Booking b WHERE b.id = ?1")
+    Optional<Long> findItemIdById(Long id);
+
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfter(Long itemId, BookingStatus status,
+                                                            LocalDateTime end, LocalDateTime start);
+
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(Long itemId, BookingStatus status,
+                                                                    LocalDateTime end, LocalDateTime start,
+                                                                    Long id);
+
+    List<BookingTimesView> findByPhaseAndStartBefore(BookingPhase phase, LocalDateTime start, Pageable pageable);
+
+    List<BookingTimesView> findByPhaseInAndEndBefore(Collection<BookingPhase> phases, LocalDateTime end,
+                                                     Pageable pageable);
+
+    @Query(value = "SELECT b.id FROM bookings b WHERE b.id IN ?1 AND b.phase IN ?2 FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsInPhases(Collection<Long> ids, Collection<String> phases);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.phase = ?2 WHERE b.id IN ?1 AND b.phase IN ?3")
+    int updatePhase(Collection<Long> ids, BookingPhase phase, Collection<BookingPhase> fromPhases);
+
+    @Query("SELECT b.version AS version, b.item.version AS itemVersion, b.booker.version AS bookerVersion, " +
+            "b.booker.id AS bookerId, b.item.owner.id AS ownerId FROM Booking b WHERE b.id = ?1")
+    Optional<BookingVersionView> findVersionsById(Long id);
+
+    @Query("SELECT COUNT(b) AS total, COALESCE(SUM(b.version + b.booker.version), 0) AS versionSum, " +
+            "COALESCE(SUM(CASE WHEN b.start < ?2 THEN 1 ELSE 0 END), 0) AS startedCount " +
+            "FROM Booking b WHERE b.item.owner.id = ?1 AND b.status = ?3")
+    OwnerBookingsVersionView findVersionsByItemOwnerId(Long ownerId, LocalDateTime now, BookingStatus status);
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.status.BookingStatus;
+
+import java.time.LocalDateTime;
+
+public interface BookingShortView {
+
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    BookingStatus getStatus();
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.repository;
+
+import java.time.LocalDateTime;
+
+public interface BookingTimesView {
+
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
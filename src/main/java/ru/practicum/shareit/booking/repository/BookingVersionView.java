@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.repository;
+
+public interface BookingVersionView {
+
+    Long getVersion();
+
+    Long getItemVersion();
+
+    Long getBookerVersion();
+
+    Long getBookerId();
+
+    Long getOwnerId();
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.repository;
+
+public interface OwnerBookingsVersionView {
+
+    Long getTotal();
+
+    Long getVersionSum();
+
+    Long getStartedCount();
+}
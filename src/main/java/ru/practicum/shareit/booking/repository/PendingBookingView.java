@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.repository;
+
+import java.time.LocalDateTime;
+
+public interface PendingBookingView {
+
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    Long getItemId();
+
+    String getItemName();
+
+    Long getBookerId();
+
+    Boolean getConflicting();
+}
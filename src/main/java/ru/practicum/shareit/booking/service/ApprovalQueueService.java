@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.PendingBookingDto;
+
+import java.util.List;
+
+public interface ApprovalQueueService {
+
+    List<PendingBookingDto> getQueue(Long ownerId, int from, int size);
+
+    List<BookingDto> approveNext(Long ownerId, int count);
+
+    List<BookingDto> rejectConflicting(Long ownerId);
+}
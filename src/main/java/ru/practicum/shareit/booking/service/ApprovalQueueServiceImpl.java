@@ -0,0 +1,198 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.PendingBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.PendingBookingView;
+import ru.practicum.shareit.booking.status.BookingStatus;
+import ru.practicum.shareit.datasource.ReadOnlyTransactions;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.repository.ItemStatsRepository;
+import ru.practicum.shareit.item.service.ItemAvailabilityCache;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxWriter;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Очередь ожидающих бронирований владельца: WAITING по его вещам в порядке даты начала,
+ * с пометкой пересечения с уже одобренными. Очередь читается по индексу (item_id, status, start_date).
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ApprovalQueueServiceImpl implements ApprovalQueueService {
+
+    private static final int QUEUE_BATCH = 100;
+
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final ItemStatsRepository itemStatsRepository;
+    private final ItemAvailabilityCache availabilityCache;
+    private final OutboxWriter outboxWriter;
+    private final ReadOnlyTransactions readOnlyTransactions;
+    private final ItemLocks itemLocks;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public List<PendingBookingDto> getQueue(Long ownerId, int from, int size) {
+        checkOwner(ownerId);
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Некорректные параметры пагинации");
+        }
+
+        return bookingRepository.findQueueByItemOwnerId(ownerId, BookingStatus.WAITING, BookingStatus.APPROVED,
+                        OffsetPageRequest.of(from, size)).stream()
+                .map(BookingMapper::toPendingBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Одобряет первые count бронирований очереди. Бронирования, пересекающиеся с одобренными ранее
+     * или одобряемыми в этом же вызове, пропускаются и остаются в очереди. Кандидаты выбираются
+     * без блокировок, а одобряются под блокировками их предметов с повторной проверкой пересечений.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BookingDto> approveNext(Long ownerId, int count) {
+        List<PendingBookingView> chosen = readOnlyTransactions.read(() -> {
+            checkOwner(ownerId);
+            if (count <= 0) {
+                throw new ValidationException("Количество бронирований должно быть положительным");
+            }
+            return selectApprovable(ownerId, count);
+        });
+        if (chosen.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> itemIds = chosen.stream()
+                .map(PendingBookingView::getItemId)
+                .collect(Collectors.toSet());
+        List<Long> bookingIds = chosen.stream()
+                .map(PendingBookingView::getId)
+                .collect(Collectors.toList());
+        try {
+            return itemLocks.withLocks(itemIds, () ->
+                    transactionTemplate.execute(status -> decide(bookingIds, BookingStatus.APPROVED)));
+        } catch (DataIntegrityViolationException e) {
+            throw new BookingConflictException("Бронирования пересекаются с уже одобренными");
+        } catch (OptimisticLockingFailureException e) {
+            throw new BookingConflictException("Бронирования были изменены параллельно, повторите запрос");
+        }
+    }
+
+    private List<PendingBookingView> selectApprovable(Long ownerId, int count) {
+        List<PendingBookingView> chosen = new ArrayList<>();
+        Map<Long, List<PendingBookingView>> acceptedByItem = new HashMap<>();
+        int page = 0;
+        while (chosen.size() < count) {
+            List<PendingBookingView> batch = bookingRepository.findQueueByItemOwnerId(
+                    ownerId, BookingStatus.WAITING, BookingStatus.APPROVED, PageRequest.of(page++, QUEUE_BATCH));
+            for (PendingBookingView pending : batch) {
+                List<PendingBookingView> accepted = acceptedByItem.computeIfAbsent(
+                        pending.getItemId(), id -> new ArrayList<>());
+                if (pending.getConflicting() || overlapsAny(pending, accepted)) {
+                    continue;
+                }
+                accepted.add(pending);
+                chosen.add(pending);
+                if (chosen.size() == count) {
+                    break;
+                }
+            }
+            if (batch.size() < QUEUE_BATCH) {
+                break;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Отклоняет ожидающие бронирования, пересекающиеся с одобренными. Как и approveNext, решение
+     * принимается под блокировками предметов, чтобы не разойтись с параллельным одобрением.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BookingDto> rejectConflicting(Long ownerId) {
+        List<Long> conflicting = readOnlyTransactions.read(() -> {
+            checkOwner(ownerId);
+            return bookingRepository.findConflictingIdsByItemOwnerId(
+                    ownerId, BookingStatus.WAITING, BookingStatus.APPROVED);
+        });
+        if (conflicting.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> itemIds = Set.copyOf(readOnlyTransactions.read(() ->
+                bookingRepository.findItemIdsByIds(conflicting)));
+        try {
+            return itemLocks.withLocks(itemIds, () ->
+                    transactionTemplate.execute(status -> decide(conflicting, BookingStatus.REJECTED)));
+        } catch (OptimisticLockingFailureException e) {
+            throw new BookingConflictException("Бронирования были изменены параллельно, повторите запрос");
+        }
+    }
+
+    private List<BookingDto> decide(List<Long> bookingIds, BookingStatus status) {
+        if (bookingIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<Booking> bookings = new ArrayList<>();
+        for (Booking booking : bookingRepository.findAllById(bookingIds)) {
+            if (booking.getStatus() != BookingStatus.WAITING || (status == BookingStatus.APPROVED &&
+                    bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(
+                            booking.getItem().getId(), BookingStatus.APPROVED, booking.getEnd(), booking.getStart(),
+                            booking.getId()))) {
+                continue;
+            }
+            bookings.add(booking);
+            booking.setStatus(status);
+            itemStatsRepository.bookingStatusChanged(booking.getItem().getId(), BookingStatus.WAITING, status);
+            availabilityCache.invalidate(booking.getItem().getId());
+        }
+        List<BookingDto> result = bookings.stream()
+                .sorted(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId))
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+        for (BookingDto booking : result) {
+            outboxWriter.write(OutboxWriter.BOOKING, booking.getId(), OutboxEventType.BOOKING_STATUS_CHANGED, booking);
+        }
+        return result;
+    }
+
+    private boolean overlapsAny(PendingBookingView pending, List<PendingBookingView> accepted) {
+        for (PendingBookingView other : accepted) {
+            if (other.getStart().isBefore(pending.getEnd()) && other.getEnd().isAfter(pending.getStart())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkOwner(Long ownerId) {
+        userRepository.findById(ownerId)
+                .orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
+    }
+}
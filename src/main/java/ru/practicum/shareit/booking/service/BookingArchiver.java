@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.service.ItemAvailabilityCache;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Переносит бронирования, завершившиеся более N дней назад, из bookings в bookings_archive.
+ * Каждая пачка копируется и удаляется в одной транзакции.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class BookingArchiver {
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemAvailabilityCache availabilityCache;
+
+    @Value("${shareit.booking-archive.after-days:90}")
+    private long afterDays;
+
+    @Value("${shareit.booking-archive.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${shareit.booking-archive.batches-per-run:50}")
+    private int batchesPerRun;
+
+    @Scheduled(cron = "${shareit.booking-archive.cron:0 30 3 * * *}")
+    public void archiveEndedBookings() {
+        LocalDateTime threshold = LocalDateTime.now().minusDays(afterDays);
+        long archived = 0;
+
+        for (int i = 0; i < batchesPerRun; i++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(threshold));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            archived += moved;
+        }
+
+        if (archived > 0) {
+            availabilityCache.invalidateAll();
+            log.info("В архив перенесено бронирований: {}", archived);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime threshold) {
+        List<Long> ids = bookingRepository.findIdsEndedBefore(threshold, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedBookingRepository.copyFromBookings(ids, LocalDateTime.now());
+        bookingRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,214 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.event.BookingPhaseChangedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingTimesView;
+import ru.practicum.shareit.booking.status.BookingPhase;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Переводит бронирования между фазами FUTURE, CURRENT и PAST.
+ * Ближайшие моменты начала и окончания аренды держатся в очереди с задержкой,
+ * наступившие переходы применяются пакетными UPDATE раз в тик.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class BookingLifecycleScheduler {
+
+    private static final List<BookingPhase> NOT_PAST = List.of(BookingPhase.FUTURE, BookingPhase.CURRENT);
+    private static final Sort BY_START = Sort.by("start");
+    private static final Sort BY_END = Sort.by("end");
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final DelayQueue<BookingTransition> queue = new DelayQueue<>();
+    private final Set<BookingTransition> queued = ConcurrentHashMap.newKeySet();
+
+    private volatile LocalDateTime loadedUntil = LocalDateTime.now();
+
+    @Value("${shareit.booking-lifecycle.horizon-minutes:10}")
+    private long horizonMinutes;
+
+    @Value("${shareit.booking-lifecycle.batch-size:500}")
+    private int batchSize;
+
+    @Value("${shareit.booking-lifecycle.catch-up-batches:20}")
+    private int catchUpBatches;
+
+    @Value("${shareit.booking-lifecycle.max-queued:10000}")
+    private int maxQueued;
+
+    /**
+     * Внутри транзакции переходы ставятся в очередь только после её коммита: иначе близкий переход
+     * мог сработать раньше, чем строка станет видна, и потеряться до следующего catchUp.
+     */
+    public void register(Booking booking) {
+        Long id = booking.getId();
+        BookingPhase phase = booking.getPhase();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    register(id, phase, start, end);
+                }
+            });
+        } else {
+            register(id, phase, start, end);
+        }
+    }
+
+    private void register(Long id, BookingPhase phase, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime horizon = loadedUntil;
+        if (phase == BookingPhase.FUTURE && start.isBefore(horizon)) {
+            enqueue(new BookingTransition(id, BookingPhase.CURRENT, start));
+        }
+        if (phase != BookingPhase.PAST && end.isBefore(horizon)) {
+            enqueue(new BookingTransition(id, BookingPhase.PAST, end));
+        }
+    }
+
+    /**
+     * Сначала пакетами применяет уже наступившие переходы (после простоя их может быть много),
+     * затем ставит в очередь ближайшие в пределах горизонта, но не больше maxQueued каждого вида.
+     * Если лимит выбран, загруженный горизонт сдвигается к последнему загруженному моменту,
+     * остальное подгрузится следующим запуском.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-lifecycle.load-ms:60000}")
+    public void loadUpcoming() {
+        LocalDateTime now = LocalDateTime.now();
+        catchUp(now);
+
+        LocalDateTime horizon = now.plusMinutes(horizonMinutes);
+        List<BookingTimesView> starting = bookingRepository.findByPhaseAndStartBefore(
+                BookingPhase.FUTURE, horizon, PageRequest.of(0, maxQueued, BY_START));
+        starting.forEach(b -> enqueue(new BookingTransition(b.getId(), BookingPhase.CURRENT, b.getStart())));
+
+        List<BookingTimesView> ending = bookingRepository.findByPhaseInAndEndBefore(
+                NOT_PAST, horizon, PageRequest.of(0, maxQueued, BY_END));
+        ending.forEach(b -> enqueue(new BookingTransition(b.getId(), BookingPhase.PAST, b.getEnd())));
+
+        LocalDateTime loaded = horizon;
+        if (starting.size() == maxQueued) {
+            loaded = earliest(loaded, starting.get(starting.size() - 1).getStart());
+        }
+        if (ending.size() == maxQueued) {
+            loaded = earliest(loaded, ending.get(ending.size() - 1).getEnd());
+        }
+        loadedUntil = loaded;
+        log.debug("Запланировано переходов: начало {}, окончание {}", starting.size(), ending.size());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-lifecycle.tick-ms:1000}")
+    public void applyDueTransitions() {
+        List<BookingTransition> due = new ArrayList<>();
+        queue.drainTo(due);
+        if (due.isEmpty()) {
+            return;
+        }
+        due.forEach(queued::remove);
+
+        Map<BookingPhase, List<Long>> idsByPhase = new EnumMap<>(BookingPhase.class);
+        due.forEach(t -> idsByPhase.computeIfAbsent(t.getPhase(), p -> new ArrayList<>()).add(t.getBookingId()));
+
+        apply(idsByPhase.getOrDefault(BookingPhase.CURRENT, List.of()), BookingPhase.CURRENT,
+                List.of(BookingPhase.FUTURE));
+        apply(idsByPhase.getOrDefault(BookingPhase.PAST, List.of()), BookingPhase.PAST, NOT_PAST);
+    }
+
+    private void catchUp(LocalDateTime now) {
+        PageRequest firstPage = PageRequest.of(0, batchSize);
+        for (int i = 0; i < catchUpBatches; i++) {
+            List<Long> started = ids(bookingRepository.findByPhaseAndStartBefore(
+                    BookingPhase.FUTURE, now, firstPage.withSort(BY_START)));
+            apply(started, BookingPhase.CURRENT, List.of(BookingPhase.FUTURE));
+
+            List<Long> ended = ids(bookingRepository.findByPhaseInAndEndBefore(
+                    NOT_PAST, now, firstPage.withSort(BY_END)));
+            apply(ended, BookingPhase.PAST, NOT_PAST);
+
+            if (started.size() < batchSize && ended.size() < batchSize) {
+                return;
+            }
+        }
+        log.warn("Не все просроченные переходы фаз применены за запуск, продолжение на следующем");
+    }
+
+    private void apply(List<Long> ids, BookingPhase phase, List<BookingPhase> fromPhases) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> updated = update(ids, phase, fromPhases);
+        if (!updated.isEmpty()) {
+            eventPublisher.publishEvent(new BookingPhaseChangedEvent(updated, phase));
+        }
+    }
+
+    private List<Long> ids(List<BookingTimesView> bookings) {
+        return bookings.stream()
+                .map(BookingTimesView::getId)
+                .collect(Collectors.toList());
+    }
+
+    private LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    /**
+     * @return id, которые действительно сменили фазу: строки блокируются и отбираются по исходной фазе,
+     * поэтому уже переведённые или ещё не закоммиченные бронирования в событие не попадают
+     */
+    private List<Long> update(List<Long> ids, BookingPhase phase, List<BookingPhase> fromPhases) {
+        List<String> fromNames = fromPhases.stream()
+                .map(BookingPhase::name)
+                .collect(Collectors.toList());
+        List<Long> updated = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            List<Long> locked = transactionTemplate.execute(status -> {
+                List<Long> inPhase = bookingRepository.lockIdsInPhases(batch, fromNames);
+                if (!inPhase.isEmpty()) {
+                    bookingRepository.updatePhase(inPhase, phase, fromPhases);
+                }
+                return inPhase;
+            });
+            if (locked != null) {
+                updated.addAll(locked);
+            }
+        }
+        return updated;
+    }
+
+    private void enqueue(BookingTransition transition) {
+        if (queued.add(transition)) {
+            queue.add(transition);
+        }
+    }
+}
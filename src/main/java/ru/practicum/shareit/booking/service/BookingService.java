@@ -2,9 +2,11 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingField;
 import ru.practicum.shareit.booking.status.BookingStatus;
 
 import java.util.List;
+import java.util.Set;
 
 public interface BookingService {
 
@@ -14,7 +16,9 @@ public interface BookingService {
 
     BookingDto getBookingById(Long userId, Long bookingId);
 
-    List<BookingDto> getBookingsByUser(Long userId, BookingStatus status);
+    String getBookingEtag(Long userId, Long bookingId);
 
-    List<BookingDto> getBookingsByOwner(Long userId, BookingStatus status);
+    List<BookingDto> getBookingsByUser(Long userId, BookingStatus status, Set<BookingField> fields);
+
+    List<BookingDto> getBookingsByOwner(Long userId, BookingStatus status, Set<BookingField> fields);
 }
@@ -1,23 +1,40 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingField;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingShortView;
+import ru.practicum.shareit.booking.repository.BookingVersionView;
+import ru.practicum.shareit.booking.status.BookingPhase;
 import ru.practicum.shareit.booking.status.BookingStatus;
+import ru.practicum.shareit.datasource.ReadOnlyTransactions;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemStatsRepository;
+import ru.practicum.shareit.item.service.ItemAvailabilityCache;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxWriter;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,12 +43,29 @@ import java.util.stream.Collectors;
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ItemStatsRepository itemStatsRepository;
+    private final BookingLifecycleScheduler bookingLifecycleScheduler;
+    private final ItemAvailabilityCache availabilityCache;
+    private final OutboxWriter outboxWriter;
+    private final ReadOnlyTransactions readOnlyTransactions;
+    private final ItemLocks itemLocks;
+    private final TransactionTemplate transactionTemplate;
 
+    /**
+     * Заявки на один предмет проверяются и сохраняются по очереди под блокировкой предмета,
+     * пересечение с одобренным бронированием отклоняется с 409.
+     */
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BookingDto createBooking(Long userId, BookingCreateDto bookingDto) {
+        return itemLocks.withLock(bookingDto.getItemId(), () ->
+                transactionTemplate.execute(status -> doCreateBooking(userId, bookingDto)));
+    }
+
+    private BookingDto doCreateBooking(Long userId, BookingCreateDto bookingDto) {
         User booker = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
 
@@ -51,20 +85,41 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Неверные даты бронирования");
         }
 
+        if (bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(
+                item.getId(), BookingStatus.APPROVED, bookingDto.getEnd(), bookingDto.getStart())) {
+            throw new BookingConflictException("Предмет уже забронирован на эти даты");
+        }
+
         Booking booking = new Booking();
         booking.setStart(bookingDto.getStart());
         booking.setEnd(bookingDto.getEnd());
         booking.setItem(item);
         booking.setBooker(booker);
         booking.setStatus(BookingStatus.WAITING);
+        booking.setPhase(BookingPhase.of(bookingDto.getStart(), bookingDto.getEnd(), LocalDateTime.now()));
 
         Booking savedBooking = bookingRepository.save(booking);
-        return BookingMapper.toBookingDto(savedBooking);
+        bookingLifecycleScheduler.register(savedBooking);
+        itemStatsRepository.bookingAdded(item.getId(), BookingStatus.WAITING);
+        BookingDto result = BookingMapper.toBookingDto(savedBooking);
+        outboxWriter.write(OutboxWriter.BOOKING, result.getId(), OutboxEventType.BOOKING_CREATED, result);
+        return result;
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BookingDto updateBookingStatus(Long userId, Long bookingId, Boolean approved) {
+        Long itemId = bookingRepository.findItemIdById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException("Бронирование не найдено"));
+        try {
+            return itemLocks.withLock(itemId, () ->
+                    transactionTemplate.execute(status -> doUpdateBookingStatus(userId, bookingId, approved)));
+        } catch (DataIntegrityViolationException e) {
+            throw new BookingConflictException("Бронирование пересекается с уже одобренным");
+        }
+    }
+
+    private BookingDto doUpdateBookingStatus(Long userId, Long bookingId, Boolean approved) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("Бронирование не найдено"));
 
@@ -76,95 +131,213 @@ public class BookingServiceImpl implements BookingService {
             throw new AccessDeniedException("Бронирование уже одобрено или отклонено");
         }
 
+        if (approved && bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(
+                booking.getItem().getId(), BookingStatus.APPROVED, booking.getEnd(), booking.getStart(), bookingId)) {
+            throw new BookingConflictException("Бронирование пересекается с уже одобренным");
+        }
+
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
         Booking updatedBooking = bookingRepository.save(booking);
-        return BookingMapper.toBookingDto(updatedBooking);
+        itemStatsRepository.bookingStatusChanged(booking.getItem().getId(), BookingStatus.WAITING,
+                booking.getStatus());
+        availabilityCache.invalidate(booking.getItem().getId());
+        BookingDto result = BookingMapper.toBookingDto(updatedBooking);
+        outboxWriter.write(OutboxWriter.BOOKING, result.getId(), OutboxEventType.BOOKING_STATUS_CHANGED, result);
+        return result;
     }
 
     @Override
     public BookingDto getBookingById(Long userId, Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking != null) {
+            checkBookingAccess(userId, booking.getBooker(), booking.getItem());
+            return BookingMapper.toBookingDto(booking);
+        }
+
+        ArchivedBooking archived = archivedBookingRepository.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("Бронирование не найдено"));
+        checkBookingAccess(userId, archived.getBooker(), archived.getItem());
+        return BookingMapper.toBookingDto(archived);
+    }
 
-        if (!booking.getBooker().getId().equals(userId) &&
-                !booking.getItem().getOwner().getId().equals(userId)) {
+    /**
+     * ETag выдаётся только бронирующему и владельцу вещи, иначе по 304 можно было бы узнать
+     * о существовании чужого бронирования и его версии.
+     */
+    @Override
+    public String getBookingEtag(Long userId, Long bookingId) {
+        BookingVersionView versions = bookingRepository.findVersionsById(bookingId)
+                .or(() -> archivedBookingRepository.findVersionsById(bookingId))
+                .orElse(null);
+        if (versions == null) {
+            return null;
+        }
+        if (!versions.getBookerId().equals(userId) && !versions.getOwnerId().equals(userId)) {
             throw new AccessDeniedException("Доступ запрещен");
         }
-
-        return BookingMapper.toBookingDto(booking);
+        return "\"b" + bookingId + "-" + versions.getVersion() + "-" +
+                versions.getItemVersion() + "-" + versions.getBookerVersion() + "\"";
     }
 
     @Override
-    public List<BookingDto> getBookingsByUser(Long userId, BookingStatus status) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BookingDto> getBookingsByUser(Long userId, BookingStatus status, Set<BookingField> fields) {
+        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        LocalDateTime now = LocalDateTime.now();
 
+        if (fields.isEmpty()) {
+            Loaded<BookingShortView, BookingShortView> loaded = readOnlyTransactions.read(() -> {
+                checkUser(userId);
+                return new Loaded<>(findByBooker(userId, status, now, sort, BookingShortView.class),
+                        findArchivedByBooker(userId, status, sort, BookingShortView.class));
+            });
+            return mergeByStartDesc(map(loaded.live(), BookingMapper::toBookingDto),
+                    map(loaded.archived(), BookingMapper::toBookingDto));
+        }
+
+        Loaded<Booking, ArchivedBooking> loaded = readOnlyTransactions.read(() -> {
+            checkUser(userId);
+            return new Loaded<>(findByBooker(userId, status, now, sort, Booking.class),
+                    findArchivedByBooker(userId, status, sort, ArchivedBooking.class));
+        });
+        return mergeByStartDesc(BookingMapper.toBookingDtos(loaded.live(), fields),
+                BookingMapper.toArchivedBookingDtos(loaded.archived(), fields));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BookingDto> getBookingsByOwner(Long userId, BookingStatus status, Set<BookingField> fields) {
         Sort sort = Sort.by(Sort.Direction.DESC, "start");
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings;
 
+        if (fields.isEmpty()) {
+            Loaded<BookingShortView, BookingShortView> loaded = readOnlyTransactions.read(() -> {
+                checkUser(userId);
+                return new Loaded<>(findByOwner(userId, status, now, sort, BookingShortView.class),
+                        findArchivedByOwner(userId, status, sort, BookingShortView.class));
+            });
+            return mergeByStartDesc(map(loaded.live(), BookingMapper::toBookingDto),
+                    map(loaded.archived(), BookingMapper::toBookingDto));
+        }
+
+        Loaded<Booking, ArchivedBooking> loaded = readOnlyTransactions.read(() -> {
+            checkUser(userId);
+            return new Loaded<>(findByOwner(userId, status, now, sort, Booking.class),
+                    findArchivedByOwner(userId, status, sort, ArchivedBooking.class));
+        });
+        return mergeByStartDesc(BookingMapper.toBookingDtos(loaded.live(), fields),
+                BookingMapper.toArchivedBookingDtos(loaded.archived(), fields));
+    }
+
+    private void checkUser(Long userId) {
+        userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
+    }
+
+    private <T> List<T> findByBooker(Long userId, BookingStatus status, LocalDateTime now, Sort sort, Class<T> type) {
         switch (status) {
             case ALL:
-                bookings = bookingRepository.findByBookerId(userId, sort);
-                break;
+                return bookingRepository.findByBookerId(userId, sort, type);
             case CURRENT:
-                bookings = bookingRepository.findByBookerIdAndCurrent(userId, now, sort);
-                break;
+                return bookingRepository.findByBookerIdAndPhaseAndStartLessThanEqual(
+                        userId, BookingPhase.CURRENT, now, sort, type);
             case PAST:
-                bookings = bookingRepository.findByBookerIdAndEndIsBefore(userId, now, sort);
-                break;
+                return bookingRepository.findByBookerIdAndPhase(userId, BookingPhase.PAST, sort, type);
             case FUTURE:
-                bookings = bookingRepository.findByBookerIdAndStartIsAfter(userId, now, sort);
-                break;
+                return bookingRepository.findByBookerIdAndPhaseAndStartAfter(
+                        userId, BookingPhase.FUTURE, now, sort, type);
             case WAITING:
-                bookings = bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING, sort);
-                break;
+                return bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING, sort, type);
             case REJECTED:
-                bookings = bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, sort);
-                break;
+                return bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, sort, type);
             default:
                 throw new RuntimeException("Неизвестный статус: " + status);
         }
-
-        return bookings.stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
     }
 
-    @Override
-    public List<BookingDto> getBookingsByOwner(Long userId, BookingStatus status) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
-
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings;
-
+    private <T> List<T> findByOwner(Long userId, BookingStatus status, LocalDateTime now, Sort sort, Class<T> type) {
         switch (status) {
             case ALL:
-                bookings = bookingRepository.findByItemOwnerId(userId, sort);
-                break;
+                return bookingRepository.findByItemOwnerId(userId, sort, type);
             case CURRENT:
-                bookings = bookingRepository.findByItemOwnerIdAndCurrent(userId, now, sort);
-                break;
+                return bookingRepository.findByItemOwnerIdAndPhaseAndStartLessThanEqual(
+                        userId, BookingPhase.CURRENT, now, sort, type);
             case PAST:
-                bookings = bookingRepository.findByItemOwnerIdAndEndIsBefore(userId, now, sort);
-                break;
+                return bookingRepository.findByItemOwnerIdAndPhase(userId, BookingPhase.PAST, sort, type);
             case FUTURE:
-                bookings = bookingRepository.findByItemOwnerIdAndStartIsAfter(userId, now, sort);
-                break;
+                return bookingRepository.findByItemOwnerIdAndPhaseAndStartAfter(
+                        userId, BookingPhase.FUTURE, now, sort, type);
             case WAITING:
-                bookings = bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.WAITING, sort);
-                break;
+                return bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.WAITING, sort, type);
             case REJECTED:
-                bookings = bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED, sort);
-                break;
+                return bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED, sort, type);
             default:
                 throw new RuntimeException("Неизвестный статус: " + status);
         }
+    }
 
+    /**
+     * В архиве только завершившиеся бронирования любого статуса: они попадают в ALL и PAST,
+     * а отклонённые и так и не рассмотренные — ещё и в REJECTED и WAITING.
+     */
+    private <T> List<T> findArchivedByBooker(Long userId, BookingStatus status, Sort sort, Class<T> type) {
+        switch (status) {
+            case ALL:
+            case PAST:
+                return archivedBookingRepository.findByBookerId(userId, sort, type);
+            case WAITING:
+            case REJECTED:
+                return archivedBookingRepository.findByBookerIdAndStatus(userId, status, sort, type);
+            default:
+                return List.of();
+        }
+    }
+
+    private <T> List<T> findArchivedByOwner(Long userId, BookingStatus status, Sort sort, Class<T> type) {
+        switch (status) {
+            case ALL:
+            case PAST:
+                return archivedBookingRepository.findByItemOwnerId(userId, sort, type);
+            case WAITING:
+            case REJECTED:
+                return archivedBookingRepository.findByItemOwnerIdAndStatus(userId, status, sort, type);
+            default:
+                return List.of();
+        }
+    }
+
+    private void checkBookingAccess(Long userId, User booker, Item item) {
+        if (!booker.getId().equals(userId) &&
+                !item.getOwner().getId().equals(userId)) {
+            throw new AccessDeniedException("Доступ запрещен");
+        }
+    }
+
+    private <T> List<BookingDto> map(List<T> bookings, Function<T, BookingDto> mapper) {
         return bookings.stream()
-                .map(BookingMapper::toBookingDto)
+                .map(mapper)
                 .collect(Collectors.toList());
     }
+
+    private List<BookingDto> mergeByStartDesc(List<BookingDto> live, List<BookingDto> archived) {
+        if (archived.isEmpty()) {
+            return live;
+        }
+
+        List<BookingDto> result = new ArrayList<>(live.size() + archived.size());
+        int i = 0;
+        int j = 0;
+        while (i < live.size() || j < archived.size()) {
+            boolean takeLive = j == archived.size() ||
+                    (i < live.size() && !live.get(i).getStart().isBefore(archived.get(j).getStart()));
+            result.add(takeLive ? live.get(i++) : archived.get(j++));
+        }
+        return result;
+    }
+
+    /**
+     * Выборка из живой таблицы и архива, сделанная в одной короткой транзакции.
+     */
+    private record Loaded<L, A>(List<L> live, List<A> archived) {
+    }
 }
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.status.BookingPhase;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+@Getter
+@RequiredArgsConstructor
+@EqualsAndHashCode(of = {"bookingId", "phase"})
+class BookingTransition implements Delayed {
+    private final Long bookingId;
+    private final BookingPhase phase;
+    private final LocalDateTime dueAt;
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(Duration.between(LocalDateTime.now(), dueAt));
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.status;
+
+import java.time.LocalDateTime;
+
+public enum BookingPhase {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static BookingPhase of(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (start.isAfter(now)) {
+            return FUTURE;
+        }
+        return end.isBefore(now) ? PAST : CURRENT;
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.datasource;
+
+/**
+ * Признак того, что read-only транзакция текущего потока должна читать основную базу:
+ * для выборок, результат которых кешируется и не должен отставать вместе с репликой.
+ */
+public final class PrimaryReadContext {
+
+    private static final ThreadLocal<Boolean> FORCED = new ThreadLocal<>();
+
+    private PrimaryReadContext() {
+    }
+
+    public static boolean isForced() {
+        return Boolean.TRUE.equals(FORCED.get());
+    }
+
+    static void force() {
+        FORCED.set(Boolean.TRUE);
+    }
+
+    static void clear() {
+        FORCED.remove();
+    }
+}
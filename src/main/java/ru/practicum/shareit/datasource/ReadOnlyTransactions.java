@@ -0,0 +1,39 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Короткая read-only транзакция только на время выборки. Маппинг в DTO выполняется после её
+ * завершения, когда соединение уже вернулось в пул.
+ */
+@Component
+public class ReadOnlyTransactions {
+
+    private final TransactionTemplate template;
+
+    public ReadOnlyTransactions(PlatformTransactionManager transactionManager) {
+        this.template = new TransactionTemplate(transactionManager);
+        this.template.setReadOnly(true);
+    }
+
+    public <T> T read(Supplier<T> action) {
+        return template.execute(status -> action.get());
+    }
+
+    /**
+     * То же, но с основной базы и без пометки пользователя как писавшего. Вызывать вне транзакции:
+     * внутри уже открытой соединение выбрано раньше, и признак не подействует.
+     */
+    public <T> T readFromPrimary(Supplier<T> action) {
+        PrimaryReadContext.force();
+        try {
+            return template.execute(status -> action.get());
+        } finally {
+            PrimaryReadContext.clear();
+        }
+    }
+}
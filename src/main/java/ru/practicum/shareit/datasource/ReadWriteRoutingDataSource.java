@@ -0,0 +1,35 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Направляет read-only транзакции на реплику, остальные — на основную базу.
+ * Должен оборачиваться в LazyConnectionDataSourceProxy, иначе соединение будет
+ * получено до того, как менеджер транзакций выставит признак read-only.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReadWriteRoutingDataSource(ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = RequestUserContext.getUserId();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWritesTracker.recordWrite(userId);
+            }
+            return DataSourceRole.PRIMARY;
+        }
+
+        if (PrimaryReadContext.isForced()) {
+            return DataSourceRole.PRIMARY;
+        }
+        return readYourWritesTracker.requiresPrimary(userId) ? DataSourceRole.PRIMARY : DataSourceRole.REPLICA;
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Помнит пользователей, недавно выполнявших запись, чтобы их чтения
+ * шли на основную базу, пока реплика не догонит изменения.
+ */
+@Component
+@Lazy(false)
+public class ReadYourWritesTracker {
+
+    private final Map<Long, Long> lastWriteMillis = new ConcurrentHashMap<>();
+
+    @Value("${shareit.datasource.read-your-writes-ms:5000}")
+    private long stickinessMillis;
+
+    public void recordWrite(Long userId) {
+        if (userId != null) {
+            lastWriteMillis.put(userId, System.currentTimeMillis());
+        }
+    }
+
+    public boolean requiresPrimary(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteMillis.get(userId);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - writtenAt > stickinessMillis) {
+            lastWriteMillis.remove(userId, writtenAt);
+            return false;
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.read-your-writes-ms:5000}")
+    public void evictExpired() {
+        long threshold = System.currentTimeMillis() - stickinessMillis;
+        lastWriteMillis.values().removeIf(writtenAt -> writtenAt < threshold);
+    }
+}
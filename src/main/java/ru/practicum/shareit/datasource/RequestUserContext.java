@@ -0,0 +1,21 @@
+package ru.practicum.shareit.datasource;
+
+public final class RequestUserContext {
+
+    private static final ThreadLocal<Long> CURRENT_USER = new ThreadLocal<>();
+
+    private RequestUserContext() {
+    }
+
+    public static Long getUserId() {
+        return CURRENT_USER.get();
+    }
+
+    public static void setUserId(Long userId) {
+        CURRENT_USER.set(userId);
+    }
+
+    public static void clear() {
+        CURRENT_USER.remove();
+    }
+}
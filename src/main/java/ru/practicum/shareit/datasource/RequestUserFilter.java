@@ -0,0 +1,38 @@
+package ru.practicum.shareit.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+public class RequestUserFilter extends OncePerRequestFilter {
+
+    public static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try {
+            RequestUserContext.setUserId(parseUserId(request.getHeader(USER_HEADER)));
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestUserContext.clear();
+        }
+    }
+
+    private Long parseUserId(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
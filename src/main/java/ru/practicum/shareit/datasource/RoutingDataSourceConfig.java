@@ -0,0 +1,80 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import ru.practicum.shareit.diagnostics.ConnectionHoldTracker;
+import ru.practicum.shareit.diagnostics.HoldTimeTrackingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Включается, когда задан shareit.datasource.replica.url.
+ * Пул основной базы настраивается через spring.datasource.*, пул реплики —
+ * через shareit.datasource.replica.* (включая hikari.*).
+ * Пулы здесь не бины, поэтому метрики Hikari и замер удержания соединений подключаются вручную.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.replica.url")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties primaryDataSourceProperties,
+                                 ReadYourWritesTracker readYourWritesTracker,
+                                 ConnectionHoldTracker connectionHoldTracker,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 Environment environment) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = createPool(primaryDataSourceProperties, binder, "spring.datasource.hikari");
+        primary.setPoolName("shareit-primary");
+        meterRegistry.ifAvailable(registry ->
+                primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+
+        DataSourceProperties replicaProperties = binder
+                .bind("shareit.datasource.replica", DataSourceProperties.class)
+                .get();
+        HikariDataSource replica = createPool(replicaProperties, binder, "shareit.datasource.replica.hikari");
+        replica.setPoolName("shareit-replica");
+        replica.setReadOnly(true);
+        meterRegistry.ifAvailable(registry ->
+                replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(readYourWritesTracker);
+        routing.setTargetDataSources(Map.<Object, Object>of(
+                DataSourceRole.PRIMARY, new HoldTimeTrackingDataSource(primary, connectionHoldTracker),
+                DataSourceRole.REPLICA, new HoldTimeTrackingDataSource(replica, connectionHoldTracker)));
+        routing.setDefaultTargetDataSource(new HoldTimeTrackingDataSource(primary, connectionHoldTracker));
+        routing.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private HikariDataSource createPool(DataSourceProperties properties, Binder binder, String hikariPrefix) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        binder.bind(hikariPrefix, Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.diagnostics;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Помечает поток именем выполняемого сервисного метода. Выполняется снаружи транзакционного прокси,
+ * чтобы соединение, открытое @Transactional, тоже попало в метод.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ConnectionHoldAspect {
+
+    private final ConnectionHoldTracker tracker;
+
+    @Around("@within(org.springframework.stereotype.Service)")
+    public Object trackServiceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." +
+                joinPoint.getSignature().getName();
+        boolean outermost = tracker.enter(method);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (outermost) {
+                tracker.exit();
+            }
+        }
+    }
+}
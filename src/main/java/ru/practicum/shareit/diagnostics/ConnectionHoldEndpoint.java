@@ -0,0 +1,32 @@
+package ru.practicum.shareit.diagnostics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * /actuator/connectionhold — сколько соединений и как долго удерживал каждый сервисный метод.
+ * DELETE сбрасывает накопленную статистику. Actuator слушает отдельный management.server.port
+ * на 127.0.0.1, поэтому эндпоинт недоступен через публичный порт API.
+ */
+@Component
+@Endpoint(id = "connectionhold")
+@RequiredArgsConstructor
+public class ConnectionHoldEndpoint {
+
+    private final ConnectionHoldTracker tracker;
+
+    @ReadOperation
+    public List<ConnectionHoldStats> holdTimes() {
+        return tracker.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        tracker.reset();
+    }
+}
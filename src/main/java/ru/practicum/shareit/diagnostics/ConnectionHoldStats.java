@@ -0,0 +1,16 @@
+package ru.practicum.shareit.diagnostics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectionHoldStats {
+    private String method;
+    private Long connections;
+    private Double totalMs;
+    private Double avgMs;
+    private Double maxMs;
+}
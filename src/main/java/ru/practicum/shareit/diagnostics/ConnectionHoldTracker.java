@@ -0,0 +1,84 @@
+package ru.practicum.shareit.diagnostics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Накопитель времени удержания соединений с БД в разрезе сервисных методов.
+ * Текущий метод запоминается ConnectionHoldAspect, время — HoldTimeTrackingDataSource.
+ */
+@Component
+public class ConnectionHoldTracker {
+
+    static final String UNATTRIBUTED = "other";
+
+    private static final ThreadLocal<String> CURRENT_METHOD = new ThreadLocal<>();
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * @return true, если метод стал текущим; false — уже выполняется внешний сервисный метод
+     */
+    boolean enter(String method) {
+        if (CURRENT_METHOD.get() != null) {
+            return false;
+        }
+        CURRENT_METHOD.set(method);
+        return true;
+    }
+
+    void exit() {
+        CURRENT_METHOD.remove();
+    }
+
+    String currentMethod() {
+        String method = CURRENT_METHOD.get();
+        return method != null ? method : UNATTRIBUTED;
+    }
+
+    void record(String method, long nanos) {
+        stats.computeIfAbsent(method, m -> new Stats()).add(nanos);
+    }
+
+    public List<ConnectionHoldStats> snapshot() {
+        return stats.entrySet().stream()
+                .map(entry -> entry.getValue().toDto(entry.getKey()))
+                .sorted(Comparator.comparingDouble(ConnectionHoldStats::getTotalMs).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    private static class Stats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        ConnectionHoldStats toDto(String method) {
+            long calls = count.sum();
+            double totalMs = toMillis(totalNanos.sum());
+            return new ConnectionHoldStats(method, calls, totalMs, calls == 0 ? 0 : totalMs / calls,
+                    toMillis(maxNanos.get()));
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.diagnostics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Оборачивает пулы Hikari, объявленные бинами, в HoldTimeTrackingDataSource.
+ * Пулы маршрутизирующего DataSource оборачивает RoutingDataSourceConfig.
+ */
+@Component
+public class HoldTimeDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<ConnectionHoldTracker> tracker;
+
+    public HoldTimeDataSourcePostProcessor(ObjectProvider<ConnectionHoldTracker> tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            return new HoldTimeTrackingDataSource(dataSource, tracker.getObject());
+        }
+        return bean;
+    }
+}
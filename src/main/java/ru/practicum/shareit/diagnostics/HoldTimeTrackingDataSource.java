@@ -0,0 +1,51 @@
+package ru.practicum.shareit.diagnostics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Замеряет время от выдачи соединения из пула до его закрытия.
+ */
+public class HoldTimeTrackingDataSource extends DelegatingDataSource {
+
+    private final ConnectionHoldTracker tracker;
+
+    public HoldTimeTrackingDataSource(DataSource target, ConnectionHoldTracker tracker) {
+        super(target);
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection track(Connection connection) {
+        String method = tracker.currentMethod();
+        long start = System.nanoTime();
+        boolean[] closed = new boolean[1];
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, invoked, args) -> {
+                    if ("close".equals(invoked.getName()) && !closed[0]) {
+                        closed[0] = true;
+                        tracker.record(method, System.nanoTime() - start);
+                    }
+                    try {
+                        return invoked.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
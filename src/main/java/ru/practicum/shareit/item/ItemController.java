@@ -1,12 +1,24 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemField;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
 import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.item.dto.OwnerAvailabilityDto;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
 import ru.practicum.shareit.item.service.ItemService;
 import lombok.RequiredArgsConstructor;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/items")
@@ -14,6 +26,7 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemAvailabilityService itemAvailabilityService;
 
     @PostMapping
     public ItemDto createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -29,13 +42,63 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemWithBookingDto getItem(@PathVariable Long itemId) {
-        return itemService.getItemById(itemId);
+    public ItemWithBookingDto getItem(@PathVariable Long itemId,
+                                      @RequestParam(required = false) List<String> include,
+                                      WebRequest request) {
+        Set<ItemField> fields = ItemField.parse(include);
+        String etag = itemService.getItemEtag(itemId, fields);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        return itemService.getItemById(itemId, fields);
     }
 
     @GetMapping
-    public List<ItemWithBookingDto> getItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemService.getItemsByOwner(userId);
+    public List<ItemWithBookingDto> getItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                             @RequestParam(required = false) List<String> include,
+                                             WebRequest request) {
+        Set<ItemField> fields = ItemField.parse(include);
+        String etag = itemService.getItemsByOwnerEtag(userId, fields);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        return itemService.getItemsByOwner(userId, fields);
+    }
+
+    @GetMapping(params = "ids")
+    public ItemBatchDto getItemsByIds(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+                                      @RequestParam List<Long> ids,
+                                      @RequestParam(required = false) List<String> include) {
+        return itemService.getItemsByIds(userId, ids, ItemField.parse(include));
+    }
+
+    @GetMapping(path = "/{itemId}", params = "summary")
+    public ItemSummaryDto getItemSummary(@PathVariable Long itemId,
+                                         @RequestParam(defaultValue = "0") int from,
+                                         @RequestParam(defaultValue = "10") int size) {
+        return itemService.getItemSummary(itemId, from, size);
+    }
+
+    @GetMapping(params = "summary")
+    public List<ItemSummaryDto> getItemsSummary(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                @RequestParam(defaultValue = "3") int size) {
+        return itemService.getItemsSummaryByOwner(userId, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemAvailabilityService.getAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/availability")
+    public OwnerAvailabilityDto getOwnerAvailability(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemAvailabilityService.getOwnerAvailability(userId, from, to);
     }
 
     @GetMapping("/search")
@@ -43,6 +106,29 @@ public class ItemController {
         return itemService.searchItems(text);
     }
 
+    @GetMapping("/autocomplete")
+    public List<ItemSuggestionDto> autocomplete(@RequestParam String prefix,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        return itemService.autocomplete(prefix, limit);
+    }
+
+    @GetMapping(path = "/search", params = {"start", "end"})
+    public List<ItemDto> searchFreeItems(
+            @RequestParam String text,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size) {
+        return itemService.searchFreeItems(text, start, end, from, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public CommentPageDto getComments(@PathVariable Long itemId,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(defaultValue = "10") int size) {
+        return itemService.getComments(itemId, cursor, size);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@RequestHeader("X-Sharer-User-Id") Long userId,
                                  @PathVariable Long itemId,
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.comment;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Пара (арендатор, предмет), для которой есть завершённое одобренное бронирование.
+ */
+@Entity
+@Table(name = "comment_eligibility")
+@IdClass(CommentEligibilityId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentEligibility {
+    @Id
+    @Column(name = "booker_id")
+    private Long bookerId;
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+}
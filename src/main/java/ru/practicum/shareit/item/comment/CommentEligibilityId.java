@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.comment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentEligibilityId implements Serializable {
+    private Long bookerId;
+    private Long itemId;
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item.comment;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.event.BookingPhaseChangedEvent;
+import ru.practicum.shareit.booking.status.BookingPhase;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Переносит в comment_eligibility бронирования, завершившиеся с момента прошлого запуска.
+ * Граница прошлого запуска хранится в job_watermarks и читается с блокировкой строки,
+ * поэтому запуски на разных экземплярах идут по очереди и не вставляют одни и те же пары.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class CommentEligibilityRefresher {
+
+    private static final String JOB = "comment_eligibility";
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final CommentEligibilityRepository commentEligibilityRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener
+    public void onBookingsEnded(BookingPhaseChangedEvent event) {
+        if (event.getPhase() == BookingPhase.PAST) {
+            refresh();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.comment-eligibility.refresh-ms:60000}")
+    public synchronized void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            Integer added = transactionTemplate.execute(status -> {
+                LocalDateTime watermark = lockWatermark();
+                if (!now.isAfter(watermark)) {
+                    return 0;
+                }
+                int inserted = commentEligibilityRepository.insertEndedBetween(watermark, now);
+                jdbcTemplate.update("UPDATE job_watermarks SET watermark = ? WHERE name = ?", now, JOB);
+                return inserted;
+            });
+            log.debug("Добавлено пар для комментариев: {}", added);
+        } catch (DataAccessException e) {
+            log.warn("Не удалось обновить таблицу comment_eligibility, повтор при следующем запуске", e);
+        }
+    }
+
+    private LocalDateTime lockWatermark() {
+        List<LocalDateTime> watermark = jdbcTemplate.query(
+                "SELECT watermark FROM job_watermarks WHERE name = ? FOR UPDATE",
+                (rs, rowNum) -> rs.getObject(1, LocalDateTime.class), JOB);
+        if (!watermark.isEmpty()) {
+            return watermark.get(0);
+        }
+        jdbcTemplate.update("INSERT INTO job_watermarks (name, watermark) VALUES (?, ?)", JOB, EPOCH);
+        return EPOCH;
+    }
+}
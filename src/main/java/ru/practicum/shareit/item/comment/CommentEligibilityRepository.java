@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.comment;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface CommentEligibilityRepository extends JpaRepository<CommentEligibility, CommentEligibilityId> {
+
+    @Modifying
+    @Query(value = "INSERT INTO comment_eligibility (booker_id, item_id) " +
+            "SELECT DISTINCT b.booker_id, b.item_id FROM bookings b " +
+            "WHERE b.status = 'APPROVED' AND b.end_date >= ?1 AND b.end_date < ?2 " +
+            "AND NOT EXISTS (SELECT 1 FROM comment_eligibility e " +
+            "WHERE e.booker_id = b.booker_id AND e.item_id = b.item_id)", nativeQuery = true)
+    int insertEndedBetween(LocalDateTime from, LocalDateTime to);
+
+    @Modifying
+    @Query(value = "DELETE FROM comment_eligibility WHERE booker_id = ?1 AND item_id IN " +
+            "(SELECT e.item_id FROM comment_eligibility e WHERE e.booker_id = ?1 LIMIT ?2)", nativeQuery = true)
+    int deleteByBookerId(Long bookerId, int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM comment_eligibility WHERE (booker_id, item_id) IN " +
+            "(SELECT e.booker_id, e.item_id FROM comment_eligibility e JOIN items i ON i.id = e.item_id " +
+            "WHERE i.owner_id = ?1 LIMIT ?2)", nativeQuery = true)
+    int deleteByItemOwnerId(Long ownerId, int limit);
+}
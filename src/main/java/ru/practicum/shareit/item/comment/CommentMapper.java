@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.comment;
+
+public class CommentMapper {
+
+    public static CommentDto toCommentDto(Comment comment) {
+        return new CommentDto(
+                comment.getId(),
+                comment.getText(),
+                comment.getAuthor().getName(),
+                comment.getCreated()
+        );
+    }
+
+    public static CommentDto toCommentDto(CommentView comment) {
+        return new CommentDto(
+                comment.getId(),
+                comment.getText(),
+                comment.getAuthorName(),
+                comment.getCreated()
+        );
+    }
+}
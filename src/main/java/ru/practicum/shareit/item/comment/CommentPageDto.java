@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.comment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница комментариев от новых к старым. nextCursor передаётся в следующий запрос как cursor,
+ * null — страниц больше нет.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentPageDto {
+    private List<CommentDto> comments;
+    private String nextCursor;
+}
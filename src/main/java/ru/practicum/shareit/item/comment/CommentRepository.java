@@ -1,14 +1,47 @@
 package ru.practicum.shareit.item.comment;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findByItemId(Long itemId);
+    @Query("SELECT new ru.practicum.shareit.item.comment.CommentDto(c.id, c.text, c.author.name, c.created) " +
+            "FROM Comment c WHERE c.item.id = ?1 ORDER BY c.created DESC, c.id DESC")
+    List<CommentDto> findFirstPageByItemId(Long itemId, Pageable pageable);
 
-    List<Comment> findByItemIdIn(List<Long> itemIds);
+    @Query("SELECT new ru.practicum.shareit.item.comment.CommentDto(c.id, c.text, c.author.name, c.created) " +
+            "FROM Comment c WHERE c.item.id = ?1 AND (c.created < ?2 OR (c.created = ?2 AND c.id < ?3)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<CommentDto> findPageByItemIdBefore(Long itemId, LocalDateTime created, Long id, Pageable pageable);
+
+    @Query(value = "SELECT c.id AS \"id\", c.text AS \"text\", u.name AS \"authorName\", " +
+            "c.created AS \"created\", c.item_id AS \"itemId\" " +
+            "FROM comments c JOIN users u ON u.id = c.author_id " +
+            "WHERE c.item_id = ?1 ORDER BY c.created DESC, c.id DESC LIMIT ?2 OFFSET ?3", nativeQuery = true)
+    List<CommentView> findPageByItemId(Long itemId, int limit, long offset);
+
+    @Query(value = "SELECT c.id AS \"id\", c.text AS \"text\", u.name AS \"authorName\", " +
+            "c.created AS \"created\", c.item_id AS \"itemId\" " +
+            "FROM (SELECT cc.*, ROW_NUMBER() OVER (PARTITION BY cc.item_id " +
+            "ORDER BY cc.created DESC, cc.id DESC) AS rn FROM comments cc WHERE cc.item_id IN ?1) c " +
+            "JOIN users u ON u.id = c.author_id " +
+            "WHERE c.rn <= ?2 ORDER BY c.item_id, c.created DESC, c.id DESC", nativeQuery = true)
+    List<CommentView> findLatestByItemIdIn(Collection<Long> itemIds, int perItem);
+
+    @Query("SELECT DISTINCT c.item.id FROM Comment c WHERE c.id IN ?1")
+    List<Long> findItemIdsByIds(Collection<Long> ids);
+
+    @Query(value = "SELECT c.id FROM comments c WHERE c.author_id = ?1 LIMIT ?2", nativeQuery = true)
+    List<Long> findIdsByAuthorId(Long authorId, int limit);
+
+    @Query(value = "SELECT c.id FROM comments c JOIN items i ON i.id = c.item_id " +
+            "WHERE i.owner_id = ?1 LIMIT ?2", nativeQuery = true)
+    List<Long> findIdsByItemOwnerId(Long ownerId, int limit);
 }
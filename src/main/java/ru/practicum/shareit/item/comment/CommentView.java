@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.comment;
+
+import java.time.LocalDateTime;
+
+public interface CommentView {
+
+    Long getId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+
+    Long getItemId();
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.dto;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Необязательные части ItemWithBookingDto, которые клиент может запросить через параметр include.
+ */
+public enum ItemField {
+    LAST_BOOKING("lastBooking"),
+    NEXT_BOOKING("nextBooking"),
+    COMMENTS("comments");
+
+    private final String name;
+
+    ItemField(String name) {
+        this.name = name;
+    }
+
+    public static Set<ItemField> all() {
+        return EnumSet.allOf(ItemField.class);
+    }
+
+    /**
+     * Нормализованный набор полей для ETag: один и тот же набор в любом порядке и регистре
+     * даёт одну строку, иначе ответ с другим include мог бы прийти клиенту как 304.
+     */
+    public static String key(Set<ItemField> fields) {
+        if (fields.isEmpty()) {
+            return "none";
+        }
+        return EnumSet.copyOf(fields).stream()
+                .map(field -> field.name)
+                .collect(Collectors.joining("+"));
+    }
+
+    public static Set<ItemField> parse(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return all();
+        }
+
+        Set<ItemField> fields = EnumSet.noneOf(ItemField.class);
+        for (String value : values) {
+            String trimmed = value.trim();
+            if (trimmed.isEmpty() || trimmed.equalsIgnoreCase("none")) {
+                continue;
+            }
+            fields.add(fromName(trimmed));
+        }
+        return fields;
+    }
+
+    private static ItemField fromName(String name) {
+        for (ItemField field : values()) {
+            if (field.name.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new ValidationException("Неизвестное поле предмета: " + name);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemStatsDto {
+    private Long commentCount;
+    private LocalDateTime lastCommentAt;
+    private Long waitingBookings;
+    private Long approvedBookings;
+    private Long rejectedBookings;
+}
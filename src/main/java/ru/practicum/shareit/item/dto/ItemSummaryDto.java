@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.comment.CommentDto;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemSummaryDto {
+    private Long id;
+    private String name;
+    private String description;
+    private Boolean available;
+    private ItemStatsDto stats;
+    private List<CommentDto> comments;
+}
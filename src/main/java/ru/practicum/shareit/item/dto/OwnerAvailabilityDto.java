@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OwnerAvailabilityDto {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<ItemAvailabilityDto> items;
+    private List<IntervalDto> fullyBooked;
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.event;
+
+public enum ItemChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
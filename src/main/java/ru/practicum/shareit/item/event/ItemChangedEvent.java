@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Публикуется внутри транзакции, изменившей каталог: создание, редактирование
+ * (в том числе смена доступности) или удаление предметов.
+ */
+@Value
+public class ItemChangedEvent {
+    List<Long> itemIds;
+    ItemChangeType type;
+}
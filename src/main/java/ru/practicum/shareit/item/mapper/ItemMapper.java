@@ -1,7 +1,15 @@
 package ru.practicum.shareit.item.mapper;
 
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemStatsDto;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemStats;
+
+import java.util.List;
 
 public class ItemMapper {
 
@@ -14,6 +22,43 @@ public class ItemMapper {
         );
     }
 
+    public static ItemWithBookingDto toItemWithBookingDto(Item item, BookingDto lastBooking,
+                                                          BookingDto nextBooking, List<CommentDto> comments) {
+        return new ItemWithBookingDto(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                lastBooking,
+                nextBooking,
+                comments
+        );
+    }
+
+    public static ItemSummaryDto toItemSummaryDto(Item item, ItemStats stats, List<CommentDto> comments) {
+        return new ItemSummaryDto(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                toItemStatsDto(stats),
+                comments
+        );
+    }
+
+    public static ItemStatsDto toItemStatsDto(ItemStats stats) {
+        if (stats == null) {
+            return new ItemStatsDto(0L, null, 0L, 0L, 0L);
+        }
+        return new ItemStatsDto(
+                stats.getCommentCount(),
+                stats.getLastCommentAt(),
+                stats.getWaitingCount(),
+                stats.getApprovedCount(),
+                stats.getRejectedCount()
+        );
+    }
+
     public static Item toItem(ItemDto itemDto) {
         Item item = new Item();
         item.setId(itemDto.getId());
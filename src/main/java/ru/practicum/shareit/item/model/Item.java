@@ -30,4 +30,8 @@ public class Item {
     @ManyToOne
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Агрегаты по предмету. Счётчики меняются атомарными UPDATE в ItemStatsRepository,
+ * через сущность строка только создаётся и читается.
+ */
+@Entity
+@Table(name = "item_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemStats {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "comment_count", nullable = false)
+    private Long commentCount;
+
+    @Column(name = "last_comment_at")
+    private LocalDateTime lastCommentAt;
+
+    @Column(name = "waiting_count", nullable = false)
+    private Long waitingCount;
+
+    @Column(name = "approved_count", nullable = false)
+    private Long approvedCount;
+
+    @Column(name = "rejected_count", nullable = false)
+    private Long rejectedCount;
+}
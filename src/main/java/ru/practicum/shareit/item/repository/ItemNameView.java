@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.repository;
+
+public interface ItemNameView {
+
+    Long getId();
+
+    String getName();
+}
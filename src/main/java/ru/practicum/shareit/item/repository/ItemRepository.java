@@ -1,20 +1,72 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.status.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item,Long> {
 
+    @Override
+    @Query("SELECT i FROM Item i WHERE i.id = ?1 AND i.owner.deleted = false")
+    Optional<Item> findById(Long id);
+
     List<Item> findByOwnerId(Long ownerId);
 
+    @Query("SELECT i FROM Item i WHERE i.id IN ?1 AND i.owner.deleted = false")
+    List<Item> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT i.id AS id, i.name AS name FROM Item i " +
+            "WHERE i.available = true AND i.owner.deleted = false ORDER BY i.id")
+    List<ItemNameView> findAvailableNames(Pageable pageable);
+
+    @Query("SELECT i.id AS id, i.name AS name FROM Item i " +
+            "WHERE i.id IN ?1 AND i.available = true AND i.owner.deleted = false")
+    List<ItemNameView> findAvailableNamesByIdIn(Collection<Long> ids);
+
     @Query("SELECT i FROM Item i " +
-            "WHERE i.available = true AND " +
+            "WHERE i.available = true AND i.owner.deleted = false AND " +
             "(UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) OR " +
             "UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%')))")
     List<Item> search(String text);
+
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.available = true AND i.owner.deleted = false AND " +
+            "(UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) OR " +
+            "UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%'))) AND " +
+            "NOT EXISTS (SELECT b.id FROM Booking b WHERE b.item.id = i.id AND b.status = ?4 " +
+            "AND b.start < ?3 AND b.end > ?2) " +
+            "ORDER BY i.id")
+    List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                          Pageable pageable);
+
+    @Query(value = "SELECT i.id FROM items i WHERE i.owner_id = ?1 LIMIT ?2", nativeQuery = true)
+    List<Long> findIdsByOwnerId(Long ownerId, int limit);
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = ?1")
+    List<Long> findAllIdsByOwnerId(Long ownerId);
+
+    @Query("SELECT i.version FROM Item i WHERE i.id = ?1 AND i.owner.deleted = false")
+    Optional<Long> findVersionById(Long id);
+
+    @Query("SELECT COUNT(i) AS total, COALESCE(SUM(i.version), 0) AS versionSum FROM Item i WHERE i.owner.id = ?1")
+    OwnerItemsVersionView findVersionsByOwnerId(Long ownerId);
+
+    @Modifying
+    @Query(value = "UPDATE items SET version = version + 1 WHERE id = ?1", nativeQuery = true)
+    int incrementVersion(Long id);
+
+    @Modifying
+    @Query(value = "UPDATE items SET version = version + 1 WHERE id IN " +
+            "(SELECT c.item_id FROM comments c WHERE c.id IN ?1)", nativeQuery = true)
+    int incrementVersionsByCommentIds(Collection<Long> commentIds);
 }
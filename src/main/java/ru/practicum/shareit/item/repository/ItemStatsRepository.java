@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.status.BookingStatus;
+import ru.practicum.shareit.item.model.ItemStats;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemStatsRepository extends JpaRepository<ItemStats, Long> {
+
+    List<ItemStats> findByItemIdIn(Collection<Long> itemIds);
+
+    @Modifying
+    @Query(value = "UPDATE item_stats SET comment_count = comment_count + 1, " +
+            "last_comment_at = CASE WHEN last_comment_at IS NULL OR last_comment_at < ?2 " +
+            "THEN ?2 ELSE last_comment_at END " +
+            "WHERE item_id = ?1", nativeQuery = true)
+    int commentAdded(Long itemId, LocalDateTime created);
+
+    /**
+     * Переносит одно бронирование между счётчиками статусов; пустая строка в from — новое бронирование.
+     */
+    @Modifying
+    @Query(value = "UPDATE item_stats SET " +
+            "waiting_count = waiting_count + CASE WHEN ?3 = 'WAITING' THEN 1 ELSE 0 END " +
+            "- CASE WHEN ?2 = 'WAITING' THEN 1 ELSE 0 END, " +
+            "approved_count = approved_count + CASE WHEN ?3 = 'APPROVED' THEN 1 ELSE 0 END " +
+            "- CASE WHEN ?2 = 'APPROVED' THEN 1 ELSE 0 END, " +
+            "rejected_count = rejected_count + CASE WHEN ?3 = 'REJECTED' THEN 1 ELSE 0 END " +
+            "- CASE WHEN ?2 = 'REJECTED' THEN 1 ELSE 0 END " +
+            "WHERE item_id = ?1", nativeQuery = true)
+    int shiftBookingCounts(Long itemId, String from, String to);
+
+    default void bookingAdded(Long itemId, BookingStatus status) {
+        shiftBookingCounts(itemId, "", status.name());
+    }
+
+    default void bookingStatusChanged(Long itemId, BookingStatus from, BookingStatus to) {
+        shiftBookingCounts(itemId, from.name(), to.name());
+    }
+
+    @Modifying
+    @Query(value = "UPDATE item_stats s SET " +
+            "comment_count = (SELECT COUNT(*) FROM comments c WHERE c.item_id = s.item_id), " +
+            "last_comment_at = (SELECT MAX(c.created) FROM comments c WHERE c.item_id = s.item_id) " +
+            "WHERE s.item_id IN ?1", nativeQuery = true)
+    int recomputeComments(Collection<Long> itemIds);
+
+    @Modifying
+    @Query(value = "UPDATE item_stats s SET " +
+            "waiting_count = (SELECT COUNT(*) FROM bookings b WHERE b.item_id = s.item_id " +
+            "AND b.status = 'WAITING') + (SELECT COUNT(*) FROM bookings_archive a " +
+            "WHERE a.item_id = s.item_id AND a.status = 'WAITING'), " +
+            "approved_count = (SELECT COUNT(*) FROM bookings b WHERE b.item_id = s.item_id " +
+            "AND b.status = 'APPROVED') + (SELECT COUNT(*) FROM bookings_archive a " +
+            "WHERE a.item_id = s.item_id AND a.status = 'APPROVED'), " +
+            "rejected_count = (SELECT COUNT(*) FROM bookings b WHERE b.item_id = s.item_id " +
+            "AND b.status = 'REJECTED') + (SELECT COUNT(*) FROM bookings_archive a " +
+            "WHERE a.item_id = s.item_id AND a.status = 'REJECTED') " +
+            "WHERE s.item_id IN ?1", nativeQuery = true)
+    int recomputeBookingCounts(Collection<Long> itemIds);
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.repository;
+
+public interface OwnerItemsVersionView {
+
+    Long getTotal();
+
+    Long getVersionSum();
+}
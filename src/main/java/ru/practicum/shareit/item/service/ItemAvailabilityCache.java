@@ -0,0 +1,116 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.IntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кэш занятых интервалов по предметам: для каждого предмета хранится несколько последних окон запроса.
+ * Число предметов ограничено, вытесняются давно не читанные (LRU), записи живут не дольше ttl.
+ * Перед запросом к БД читатель берёт поколение предмета; инвалидация его увеличивает, и put
+ * с устаревшим поколением игнорируется — результат, прочитанный до коммита изменения, не попадёт в кэш.
+ * Поколения хранятся по полосам (предметы с одинаковым хэшем делят счётчик), чтобы не расти с числом предметов.
+ */
+@Component
+public class ItemAvailabilityCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final int maxWindowsPerItem;
+    private final long ttlNanos;
+    private final long[] generations = new long[GENERATION_STRIPES];
+    private final Map<Long, Map<Window, Entry>> cache;
+
+    public ItemAvailabilityCache(@Value("${shareit.availability.cache.max-items:10000}") int maxItems,
+                                 @Value("${shareit.availability.cache.max-windows-per-item:8}") int maxWindowsPerItem,
+                                 @Value("${shareit.availability.cache.ttl-ms:300000}") long ttlMillis) {
+        this.maxWindowsPerItem = maxWindowsPerItem;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Map<Window, Entry>> eldest) {
+                return size() > maxItems;
+            }
+        };
+    }
+
+    public synchronized long generation(Long itemId) {
+        return generations[stripe(itemId)];
+    }
+
+    public synchronized List<IntervalDto> get(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<Window, Entry> windows = cache.get(itemId);
+        if (windows == null) {
+            return null;
+        }
+        Window window = new Window(from, to);
+        Entry entry = windows.get(window);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.createdAt() > ttlNanos) {
+            windows.remove(window);
+            return null;
+        }
+        return entry.busy();
+    }
+
+    public synchronized void put(Long itemId, long generation, LocalDateTime from, LocalDateTime to,
+                                 List<IntervalDto> busy) {
+        if (generation != generations[stripe(itemId)]) {
+            return;
+        }
+        Map<Window, Entry> windows = cache.computeIfAbsent(itemId, id -> new HashMap<>());
+        if (windows.size() >= maxWindowsPerItem) {
+            windows.clear();
+        }
+        windows.put(new Window(from, to), new Entry(List.copyOf(busy), System.nanoTime()));
+    }
+
+    /**
+     * Сбрасывает кэш предмета сразу и повторно после коммита текущей транзакции,
+     * чтобы конкурентное чтение не успело закэшировать незакоммиченное состояние.
+     */
+    public void invalidate(Long itemId) {
+        evict(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(itemId);
+                }
+            });
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        for (int i = 0; i < generations.length; i++) {
+            generations[i]++;
+        }
+        cache.clear();
+    }
+
+    private synchronized void evict(Long itemId) {
+        generations[stripe(itemId)]++;
+        cache.remove(itemId);
+    }
+
+    private int stripe(Long itemId) {
+        return Math.floorMod(itemId.hashCode(), GENERATION_STRIPES);
+    }
+
+    private record Window(LocalDateTime from, LocalDateTime to) {
+    }
+
+    private record Entry(List<IntervalDto> busy, long createdAt) {
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.OwnerAvailabilityDto;
+
+import java.time.LocalDateTime;
+
+public interface ItemAvailabilityService {
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    OwnerAvailabilityDto getOwnerAvailability(Long userId, LocalDateTime from, LocalDateTime to);
+}
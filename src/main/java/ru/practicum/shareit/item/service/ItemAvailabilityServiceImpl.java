@@ -0,0 +1,228 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingIntervalView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.status.BookingStatus;
+import ru.practicum.shareit.datasource.ReadOnlyTransactions;
+import ru.practicum.shareit.exception.ItemNotFoundException;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.OwnerAvailabilityDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Календарь доступности: занятые интервалы — объединённые одобренные бронирования в окне [from, to),
+ * свободные — промежутки между ними. Промахи кеша читаются с основной базы: поколение предмета
+ * защищает только от гонки с инвалидацией, но не от отставания реплики.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemAvailabilityServiceImpl implements ItemAvailabilityService {
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ItemAvailabilityCache availabilityCache;
+    private final ReadOnlyTransactions readOnlyTransactions;
+
+    @Value("${shareit.availability.max-window-days:366}")
+    private long maxWindowDays;
+
+    @Value("${shareit.booking-archive.after-days:90}")
+    private long archiveAfterDays;
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        validateWindow(from, to);
+        readOnlyTransactions.read(() -> itemRepository.findById(itemId))
+                .orElseThrow(() -> new ItemNotFoundException("Предмет не найден"));
+
+        List<IntervalDto> busy = availabilityCache.get(itemId, from, to);
+        if (busy == null) {
+            long generation = availabilityCache.generation(itemId);
+            List<BookingIntervalView> intervals = readOnlyTransactions.readFromPrimary(() -> withArchived(
+                    bookingRepository.findIntervalsByItemId(itemId, BookingStatus.APPROVED, from, to), from,
+                    () -> archivedBookingRepository.findIntervalsByItemId(itemId, BookingStatus.APPROVED, from, to)));
+            busy = mergeBusy(intervals, from, to);
+            availabilityCache.put(itemId, generation, from, to, busy);
+        }
+        return new ItemAvailabilityDto(itemId, from, to, busy, freeBetween(busy, from, to));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OwnerAvailabilityDto getOwnerAvailability(Long userId, LocalDateTime from, LocalDateTime to) {
+        validateWindow(from, to);
+        List<Long> itemIds = readOnlyTransactions.read(() -> {
+            userRepository.findById(userId)
+                    .orElseThrow(() -> new UserNotFoundException("Владелец не найден"));
+            return itemRepository.findByOwnerId(userId).stream()
+                    .map(Item::getId)
+                    .collect(Collectors.toList());
+        });
+
+        Map<Long, List<IntervalDto>> busyByItem = new HashMap<>();
+        for (Long itemId : itemIds) {
+            List<IntervalDto> cached = availabilityCache.get(itemId, from, to);
+            if (cached != null) {
+                busyByItem.put(itemId, cached);
+            }
+        }
+
+        if (busyByItem.size() < itemIds.size()) {
+            Map<Long, Long> generations = new HashMap<>();
+            for (Long itemId : itemIds) {
+                if (!busyByItem.containsKey(itemId)) {
+                    generations.put(itemId, availabilityCache.generation(itemId));
+                }
+            }
+            Map<Long, List<BookingIntervalView>> intervalsByItem = readOnlyTransactions.readFromPrimary(() ->
+                    withArchived(bookingRepository.findIntervalsByItemOwnerId(
+                            userId, BookingStatus.APPROVED, from, to), from,
+                            () -> archivedBookingRepository.findIntervalsByItemOwnerId(
+                                    userId, BookingStatus.APPROVED, from, to))).stream()
+                    .collect(Collectors.groupingBy(BookingIntervalView::getItemId));
+            for (Long itemId : itemIds) {
+                if (!busyByItem.containsKey(itemId)) {
+                    List<IntervalDto> busy = mergeBusy(intervalsByItem.getOrDefault(itemId, List.of()), from, to);
+                    availabilityCache.put(itemId, generations.get(itemId), from, to, busy);
+                    busyByItem.put(itemId, busy);
+                }
+            }
+        }
+
+        List<ItemAvailabilityDto> items = itemIds.stream()
+                .map(itemId -> {
+                    List<IntervalDto> busy = busyByItem.get(itemId);
+                    return new ItemAvailabilityDto(itemId, from, to, busy, freeBetween(busy, from, to));
+                })
+                .collect(Collectors.toList());
+
+        return new OwnerAvailabilityDto(from, to, items, fullyBooked(busyByItem.values(), itemIds.size()));
+    }
+
+    private void validateWindow(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Начало окна должно быть раньше конца");
+        }
+        if (Duration.between(from, to).toDays() > maxWindowDays) {
+            throw new ValidationException("Окно не может быть длиннее " + maxWindowDays + " дней");
+        }
+    }
+
+    /**
+     * Бронирования, закончившиеся раньше shareit.booking-archive.after-days, перенесены в архив,
+     * поэтому окно, начинающееся до этой границы, дополняется архивными интервалами. Архив читается
+     * после основной таблицы: строка, перенесённая между запросами, попадёт в обе выборки, а не пропадёт.
+     */
+    private List<BookingIntervalView> withArchived(List<BookingIntervalView> live, LocalDateTime from,
+                                                   Supplier<List<BookingIntervalView>> archivedQuery) {
+        if (!from.isBefore(LocalDateTime.now().minusDays(archiveAfterDays))) {
+            return live;
+        }
+        List<BookingIntervalView> archived = archivedQuery.get();
+        if (archived.isEmpty()) {
+            return live;
+        }
+        List<BookingIntervalView> all = new ArrayList<>(live);
+        all.addAll(archived);
+        all.sort(Comparator.comparing(BookingIntervalView::getItemId)
+                .thenComparing(BookingIntervalView::getStart));
+        return all;
+    }
+
+    /**
+     * Интервалы приходят отсортированными по началу, поэтому объединение — один проход.
+     */
+    private List<IntervalDto> mergeBusy(List<BookingIntervalView> intervals, LocalDateTime from, LocalDateTime to) {
+        List<IntervalDto> busy = new ArrayList<>();
+        IntervalDto current = null;
+        for (BookingIntervalView interval : intervals) {
+            LocalDateTime start = interval.getStart().isBefore(from) ? from : interval.getStart();
+            LocalDateTime end = interval.getEnd().isAfter(to) ? to : interval.getEnd();
+            if (current != null && !start.isAfter(current.getEnd())) {
+                if (end.isAfter(current.getEnd())) {
+                    current.setEnd(end);
+                }
+            } else {
+                current = new IntervalDto(start, end);
+                busy.add(current);
+            }
+        }
+        return busy;
+    }
+
+    private List<IntervalDto> freeBetween(List<IntervalDto> busy, LocalDateTime from, LocalDateTime to) {
+        List<IntervalDto> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (IntervalDto interval : busy) {
+            if (interval.getStart().isAfter(cursor)) {
+                free.add(new IntervalDto(cursor, interval.getStart()));
+            }
+            cursor = interval.getEnd();
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new IntervalDto(cursor, to));
+        }
+        return free;
+    }
+
+    /**
+     * Заметающая прямая по объединённым интервалам всех предметов: отрезки, где заняты сразу все.
+     * При равном времени окончание обрабатывается раньше начала, стыкующиеся интервалы не пересекаются.
+     */
+    private List<IntervalDto> fullyBooked(Iterable<List<IntervalDto>> busyByItem, int itemCount) {
+        List<IntervalDto> result = new ArrayList<>();
+        if (itemCount == 0) {
+            return result;
+        }
+
+        List<Map.Entry<LocalDateTime, Integer>> events = new ArrayList<>();
+        for (List<IntervalDto> busy : busyByItem) {
+            for (IntervalDto interval : busy) {
+                events.add(Map.entry(interval.getStart(), 1));
+                events.add(Map.entry(interval.getEnd(), -1));
+            }
+        }
+        events.sort(Map.Entry.<LocalDateTime, Integer>comparingByKey()
+                .thenComparing(Map.Entry.comparingByValue(Comparator.naturalOrder())));
+
+        int active = 0;
+        LocalDateTime openedAt = null;
+        for (Map.Entry<LocalDateTime, Integer> event : events) {
+            active += event.getValue();
+            if (active == itemCount && openedAt == null) {
+                openedAt = event.getKey();
+            } else if (active < itemCount && openedAt != null) {
+                if (event.getKey().isAfter(openedAt)) {
+                    result.add(new IntervalDto(openedAt, event.getKey()));
+                }
+                openedAt = null;
+            }
+        }
+        return result;
+    }
+}
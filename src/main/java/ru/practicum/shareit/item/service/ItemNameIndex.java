@@ -0,0 +1,339 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.event.ItemChangeType;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.repository.ItemNameView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Префиксное дерево по названиям доступных предметов для подсказок при вводе.
+ * Индексируется название целиком и с каждого из первых слов, поэтому «дре» находит
+ * «Аккумуляторная дрель». Дети узла хранятся в отсортированных массивах, обход в глубину
+ * отдаёт подсказки в алфавитном порядке и останавливается на limit-й.
+ * Память ограничена числом предметов и длиной ключа; строится при старте и периодически
+ * перестраивается целиком, между перестройками обновляется после коммита изменений каталога.
+ * <p>
+ * Полная перестройка читает каталог без блокировок и собирает новое дерево отдельно от текущего.
+ * Изменения, пришедшие за это время, запоминаются и перечитываются перед подменой дерева,
+ * иначе снимок, прочитанный до их коммита, затёр бы их.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+public class ItemNameIndex {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+
+    private final ItemRepository itemRepository;
+    private final int maxItems;
+    private final int maxKeyLength;
+    private final int maxWordsPerName;
+    private final int maxLimit;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock updateLock = new ReentrantLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    private Index index = new Index();
+    private Set<Long> changedDuringRebuild;
+
+    public ItemNameIndex(ItemRepository itemRepository,
+                         @Value("${shareit.autocomplete.max-items:200000}") int maxItems,
+                         @Value("${shareit.autocomplete.max-key-length:48}") int maxKeyLength,
+                         @Value("${shareit.autocomplete.max-words-per-name:4}") int maxWordsPerName,
+                         @Value("${shareit.autocomplete.max-limit:20}") int maxLimit) {
+        this.itemRepository = itemRepository;
+        this.maxItems = maxItems;
+        this.maxKeyLength = maxKeyLength;
+        this.maxWordsPerName = maxWordsPerName;
+        this.maxLimit = maxLimit;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${shareit.autocomplete.rebuild-ms:3600000}",
+            fixedDelayString = "${shareit.autocomplete.rebuild-ms:3600000}")
+    public void rebuild() {
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            updateLock.lock();
+            try {
+                changedDuringRebuild = new HashSet<>();
+            } finally {
+                updateLock.unlock();
+            }
+
+            List<ItemNameView> available = itemRepository.findAvailableNames(PageRequest.of(0, maxItems));
+            Index rebuilt = new Index();
+            for (ItemNameView item : available) {
+                rebuilt.add(item.getId(), item.getName());
+            }
+
+            updateLock.lock();
+            try {
+                Set<Long> changed = changedDuringRebuild;
+                changedDuringRebuild = null;
+                if (!changed.isEmpty()) {
+                    apply(rebuilt, changed, itemRepository.findAvailableNamesByIdIn(changed));
+                }
+                lock.writeLock().lock();
+                try {
+                    index = rebuilt;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.info("Индекс подсказок построен, предметов: {}, перечитано изменённых: {}",
+                        rebuilt.names.size(), changed.size());
+            } finally {
+                updateLock.unlock();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Обновления выполняются по одному: чтение названий и правка дерева идут под updateLock,
+     * чтобы более старое чтение не легло поверх более нового.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        updateLock.lock();
+        try {
+            List<ItemNameView> available = event.getType() == ItemChangeType.DELETED
+                    ? List.of()
+                    : itemRepository.findAvailableNamesByIdIn(event.getItemIds());
+
+            lock.writeLock().lock();
+            try {
+                apply(index, event.getItemIds(), available);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.addAll(event.getItemIds());
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        if (limit <= 0 || limit > maxLimit) {
+            throw new ValidationException("Количество подсказок должно быть от 1 до " + maxLimit);
+        }
+        if (prefix == null || prefix.isBlank()) {
+            return new ArrayList<>();
+        }
+        String key = truncate(SearchCache.normalise(prefix));
+
+        lock.readLock().lock();
+        try {
+            Node node = index.root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null) {
+                return new ArrayList<>();
+            }
+
+            Set<Long> found = new LinkedHashSet<>();
+            collect(node, limit, found);
+            List<ItemSuggestionDto> result = new ArrayList<>(found.size());
+            for (Long itemId : found) {
+                result.add(new ItemSuggestionDto(itemId, index.names.get(itemId)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Index target, Collection<Long> itemIds, List<ItemNameView> available) {
+        for (Long itemId : itemIds) {
+            target.remove(itemId);
+        }
+        for (ItemNameView item : available) {
+            if (target.names.size() < maxItems) {
+                target.add(item.getId(), item.getName());
+            }
+        }
+    }
+
+    private void collect(Node node, int limit, Set<Long> found) {
+        for (long itemId : node.itemIds) {
+            found.add(itemId);
+            if (found.size() == limit) {
+                return;
+            }
+        }
+        for (Node child : node.children) {
+            collect(child, limit, found);
+            if (found.size() == limit) {
+                return;
+            }
+        }
+    }
+
+    private List<String> keys(String name) {
+        String normalised = SearchCache.normalise(name);
+        List<String> keys = new ArrayList<>(maxWordsPerName);
+        int start = 0;
+        while (start >= 0 && keys.size() < maxWordsPerName) {
+            keys.add(truncate(normalised.substring(start)));
+            int space = normalised.indexOf(' ', start);
+            start = space < 0 ? -1 : space + 1;
+        }
+        return keys;
+    }
+
+    private String truncate(String key) {
+        return key.length() > maxKeyLength ? key.substring(0, maxKeyLength) : key;
+    }
+
+    private final class Index {
+        private final Node root = new Node();
+        private final Map<Long, String> names = new HashMap<>();
+
+        private void add(Long itemId, String name) {
+            names.put(itemId, name);
+            for (String key : keys(name)) {
+                Node node = root;
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.childOrCreate(key.charAt(i));
+                }
+                node.addItem(itemId);
+            }
+        }
+
+        private void remove(Long itemId) {
+            String name = names.remove(itemId);
+            if (name == null) {
+                return;
+            }
+            for (String key : keys(name)) {
+                remove(root, key, 0, itemId);
+            }
+        }
+
+        /**
+         * @return true, если узел опустел и его можно отцепить от родителя
+         */
+        private boolean remove(Node node, String key, int depth, long itemId) {
+            if (depth == key.length()) {
+                node.removeItem(itemId);
+            } else {
+                Node child = node.child(key.charAt(depth));
+                if (child != null && remove(child, key, depth + 1, itemId)) {
+                    node.removeChild(key.charAt(depth));
+                }
+            }
+            return node != root && node.isEmpty();
+        }
+    }
+
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private long[] itemIds = NO_IDS;
+
+        private Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        private Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+
+            int at = -i - 1;
+            Node child = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newKeys[at] = c;
+            newChildren[at] = child;
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(char c) {
+            int at = Arrays.binarySearch(keys, c);
+            if (at < 0) {
+                return;
+            }
+
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(keys, at + 1, newKeys, at, keys.length - at - 1);
+            System.arraycopy(children, at + 1, newChildren, at, children.length - at - 1);
+            keys = newKeys.length == 0 ? NO_KEYS : newKeys;
+            children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+        }
+
+        private void addItem(long itemId) {
+            for (long existing : itemIds) {
+                if (existing == itemId) {
+                    return;
+                }
+            }
+            itemIds = Arrays.copyOf(itemIds, itemIds.length + 1);
+            itemIds[itemIds.length - 1] = itemId;
+        }
+
+        private void removeItem(long itemId) {
+            for (int i = 0; i < itemIds.length; i++) {
+                if (itemIds[i] == itemId) {
+                    long[] newIds = new long[itemIds.length - 1];
+                    System.arraycopy(itemIds, 0, newIds, 0, i);
+                    System.arraycopy(itemIds, i + 1, newIds, i, itemIds.length - i - 1);
+                    itemIds = newIds.length == 0 ? NO_IDS : newIds;
+                    return;
+                }
+            }
+        }
+
+        private boolean isEmpty() {
+            return keys.length == 0 && itemIds.length == 0;
+        }
+    }
+}
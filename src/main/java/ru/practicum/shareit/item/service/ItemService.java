@@ -1,10 +1,17 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.dto.ItemBatchDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemField;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
 import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 public interface ItemService {
 
@@ -14,9 +21,25 @@ public interface ItemService {
 
     List<ItemDto> searchItems(String text);
 
-    ItemWithBookingDto getItemById(Long itemId);
+    List<ItemSuggestionDto> autocomplete(String prefix, int limit);
 
-    List<ItemWithBookingDto> getItemsByOwner(Long userId);
+    List<ItemDto> searchFreeItems(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    ItemWithBookingDto getItemById(Long itemId, Set<ItemField> fields);
+
+    String getItemEtag(Long itemId, Set<ItemField> fields);
+
+    ItemBatchDto getItemsByIds(Long userId, List<Long> ids, Set<ItemField> fields);
+
+    ItemSummaryDto getItemSummary(Long itemId, int from, int size);
+
+    List<ItemSummaryDto> getItemsSummaryByOwner(Long userId, int size);
+
+    List<ItemWithBookingDto> getItemsByOwner(Long userId, Set<ItemField> fields);
+
+    String getItemsByOwnerEtag(Long userId, Set<ItemField> fields);
+
+    CommentPageDto getComments(Long itemId, String cursor, int size);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
 }
@@ -1,31 +1,61 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.OwnerBookingsVersionView;
 import ru.practicum.shareit.booking.status.BookingStatus;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.CommentEligibilityId;
+import ru.practicum.shareit.item.comment.CommentEligibilityRepository;
+import ru.practicum.shareit.item.comment.CommentMapper;
+import ru.practicum.shareit.item.comment.CommentPageDto;
+import ru.practicum.shareit.item.comment.CommentView;
 import ru.practicum.shareit.item.comment.CommentRepository;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.datasource.ReadOnlyTransactions;
 import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.exception.ConcurrentUpdateException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemBatchDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemField;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.item.event.ItemChangeType;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemStats;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemStatsRepository;
+import ru.practicum.shareit.item.repository.OwnerItemsVersionView;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxWriter;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,10 +63,27 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
 
+    private static final int UPDATE_ATTEMPTS = 3;
+
     private final ItemRepository itemRepository;
+    private final ItemStatsRepository itemStatsRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final CommentRepository commentRepository;
+    private final CommentEligibilityRepository commentEligibilityRepository;
+    private final OutboxWriter outboxWriter;
+    private final ReadOnlyTransactions readOnlyTransactions;
+    private final SearchCache searchCache;
+    private final ItemNameIndex itemNameIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${shareit.comments.embedded-page-size:10}")
+    private int embeddedComments;
+
+    @Value("${shareit.items.batch-max-ids:100}")
+    private int maxBatchIds;
 
     @Override
     @Transactional
@@ -50,12 +97,31 @@ public class ItemServiceImpl implements ItemService {
         item.setOwner(owner);
 
         Item savedItem = itemRepository.save(item);
+        itemStatsRepository.save(new ItemStats(savedItem.getId(), 0L, null, 0L, 0L, 0L));
+        eventPublisher.publishEvent(new ItemChangedEvent(List.of(savedItem.getId()), ItemChangeType.CREATED));
         return ItemMapper.toItemDto(savedItem);
     }
 
+    /**
+     * Версию предмета поднимают и посторонние изменения (новый комментарий), поэтому конфликт
+     * оптимистической блокировки не означает конкурирующей правки: изменения накатываются заново
+     * на свежую версию. Если конфликт повторяется, клиент получает 409.
+     */
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> doUpdateItem(userId, itemId, itemDto));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == UPDATE_ATTEMPTS) {
+                    throw new ConcurrentUpdateException("Предмет изменён одновременно другим запросом, повторите");
+                }
+            }
+        }
+    }
+
+    private ItemDto doUpdateItem(Long userId, Long itemId, ItemDto itemDto) {
         userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Владелец не найден"));
 
@@ -85,23 +151,52 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item updatedItem = itemRepository.save(existingItem);
+        eventPublisher.publishEvent(new ItemChangedEvent(List.of(itemId), ItemChangeType.UPDATED));
         return ItemMapper.toItemDto(updatedItem);
     }
 
     @Override
-    public ItemWithBookingDto getItemById(Long itemId) {
+    public ItemWithBookingDto getItemById(Long itemId, Set<ItemField> fields) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new ItemNotFoundException("Предмет не найден"));
+
+        List<CommentDto> commentDtos = null;
+        if (fields.contains(ItemField.COMMENTS)) {
+            commentDtos = commentRepository.findFirstPageByItemId(itemId, PageRequest.of(0, embeddedComments));
+        }
+
+        return ItemMapper.toItemWithBookingDto(item, null, null, commentDtos);
+    }
+
+    @Override
+    public String getItemEtag(Long itemId, Set<ItemField> fields) {
+        return itemRepository.findVersionById(itemId)
+                .map(version -> "\"i" + itemId + "-" + version + "-" + ItemField.key(fields) + "\"")
+                .orElse(null);
+    }
+
+    @Override
+    public ItemSummaryDto getItemSummary(Long itemId, int from, int size) {
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Некорректные параметры пагинации");
+        }
+
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException("Предмет не найден"));
-        List<Comment> comments = commentRepository.findByItemId(itemId);
-        List<CommentDto> commentDtos = comments.stream()
-                .map(this::toCommentDto)
+        ItemStats stats = itemStatsRepository.findById(itemId).orElse(null);
+        List<CommentDto> comments = commentRepository.findPageByItemId(itemId, size, from).stream()
+                .map(CommentMapper::toCommentDto)
                 .collect(Collectors.toList());
 
-        return toItemWithBookingDto(item, null, null, commentDtos);
+        return ItemMapper.toItemSummaryDto(item, stats, comments);
     }
 
     @Override
-    public List<ItemWithBookingDto> getItemsByOwner(Long userId) {
+    public List<ItemSummaryDto> getItemsSummaryByOwner(Long userId, int size) {
+        if (size < 0) {
+            throw new ValidationException("Некорректные параметры пагинации");
+        }
+
         userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Владелец не найден"));
 
@@ -110,50 +205,274 @@ public class ItemServiceImpl implements ItemService {
                 .map(Item::getId)
                 .collect(Collectors.toList());
 
-        List<Booking> bookings = bookingRepository.findByItemIdInAndStatus(itemIds, BookingStatus.APPROVED);
-        Map<Long, List<Booking>> bookingsByItemId = bookings.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        Map<Long, ItemStats> statsByItemId = itemStatsRepository.findByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(ItemStats::getItemId, stats -> stats));
+
+        Map<Long, List<CommentDto>> commentsByItemId = Map.of();
+        if (size > 0 && !itemIds.isEmpty()) {
+            commentsByItemId = commentRepository.findLatestByItemIdIn(itemIds, size).stream()
+                    .collect(Collectors.groupingBy(CommentView::getItemId,
+                            Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+        }
+        Map<Long, List<CommentDto>> itemCommentsById = commentsByItemId;
 
-        List<Comment> comments = commentRepository.findByItemIdIn(itemIds);
-        Map<Long, List<Comment>> commentsByItemId = comments.stream()
-                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        return items.stream()
+                .map(item -> ItemMapper.toItemSummaryDto(item, statsByItemId.get(item.getId()),
+                        itemCommentsById.getOrDefault(item.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ItemWithBookingDto> getItemsByOwner(Long userId, Set<ItemField> fields) {
+        boolean withLast = fields.contains(ItemField.LAST_BOOKING);
+        boolean withNext = fields.contains(ItemField.NEXT_BOOKING);
+        boolean withComments = fields.contains(ItemField.COMMENTS);
+
+        OwnerItems loaded = readOnlyTransactions.read(() -> loadOwnerItems(userId, withLast, withNext, withComments));
+        List<Item> items = loaded.items();
+        Map<Long, List<Booking>> itemBookingsById = loaded.bookingsByItemId();
+        Map<Long, ArchivedBooking> archivedLastById = loaded.archivedLastByItemId();
+        Map<Long, List<CommentDto>> itemCommentsById = loaded.commentsByItemId();
 
         LocalDateTime now = LocalDateTime.now();
 
         return items.stream()
                 .map(item -> {
-                    List<Booking> itemBookings = bookingsByItemId.getOrDefault(item.getId(), new ArrayList<>());
-
-                    BookingDto lastBooking = itemBookings.stream()
-                            .filter(booking -> booking.getStart().isBefore(now))
-                            .max((b1, b2) -> b1.getStart().compareTo(b2.getStart()))
-                            .map(BookingMapper::toBookingDto)
-                            .orElse(null);
-
-                    BookingDto nextBooking = itemBookings.stream()
-                            .filter(booking -> booking.getStart().isAfter(now))
-                            .min((b1, b2) -> b1.getStart().compareTo(b2.getStart()))
-                            .map(BookingMapper::toBookingDto)
-                            .orElse(null);
-
-                    List<CommentDto> itemComments = commentsByItemId.getOrDefault(item.getId(), new ArrayList<>())
-                            .stream()
-                            .map(this::toCommentDto)
-                            .collect(Collectors.toList());
-
-                    return toItemWithBookingDto(item, lastBooking, nextBooking, itemComments);
+                    List<Booking> itemBookings = itemBookingsById.getOrDefault(item.getId(), new ArrayList<>());
+                    BookingDto lastBooking = withLast
+                            ? lastBooking(itemBookings, archivedLastById.get(item.getId()), now) : null;
+                    BookingDto nextBooking = withNext ? nextBooking(itemBookings, now) : null;
+
+                    List<CommentDto> itemComments = !withComments ? null : itemCommentsById
+                            .getOrDefault(item.getId(), new ArrayList<>());
+
+                    return ItemMapper.toItemWithBookingDto(item, lastBooking, nextBooking, itemComments);
                 })
                 .collect(Collectors.toList());
     }
 
+    private OwnerItems loadOwnerItems(Long userId, boolean withLast, boolean withNext, boolean withComments) {
+        userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("Владелец не найден"));
+
+        List<Item> items = itemRepository.findByOwnerId(userId);
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, List<Booking>> bookingsByItemId = Map.of();
+        if ((withLast || withNext) && !itemIds.isEmpty()) {
+            bookingsByItemId = bookingRepository.findByItemIdInAndStatus(itemIds, BookingStatus.APPROVED).stream()
+                    .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        }
+        Map<Long, ArchivedBooking> archivedLastByItemId = withLast
+                ? archivedLastBookings(itemIds, bookingsByItemId) : Map.of();
+
+        Map<Long, List<CommentDto>> commentsByItemId = Map.of();
+        if (withComments && !itemIds.isEmpty()) {
+            commentsByItemId = commentRepository.findLatestByItemIdIn(itemIds, embeddedComments).stream()
+                    .collect(Collectors.groupingBy(CommentView::getItemId,
+                            Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+        }
+        return new OwnerItems(items, bookingsByItemId, archivedLastByItemId, commentsByItemId);
+    }
+
+    /**
+     * Пакетная загрузка карточек: предметы, комментарии и бронирования читаются тремя запросами
+     * на весь пакет. Бронирования видны только по предметам, которыми владеет запрашивающий.
+     * Порядок ответа совпадает с порядком ids, повторы схлопываются, ненайденные id и предметы удалённых
+     * владельцев перечисляются отдельно.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ItemBatchDto getItemsByIds(Long userId, List<Long> ids, Set<ItemField> fields) {
+        List<Long> requested = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (requested.size() > maxBatchIds) {
+            throw new ValidationException("Можно запросить не более " + maxBatchIds + " предметов");
+        }
+
+        boolean withLast = fields.contains(ItemField.LAST_BOOKING);
+        boolean withNext = fields.contains(ItemField.NEXT_BOOKING);
+        boolean withComments = fields.contains(ItemField.COMMENTS);
+
+        ItemBatch loaded = readOnlyTransactions.read(() -> loadItemBatch(userId, requested,
+                withLast, withNext, withComments));
+        LocalDateTime now = LocalDateTime.now();
+
+        List<ItemWithBookingDto> items = new ArrayList<>(loaded.itemsById().size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            Item item = loaded.itemsById().get(id);
+            if (item == null) {
+                missingIds.add(id);
+                continue;
+            }
+
+            List<Booking> itemBookings = loaded.bookingsByItemId().getOrDefault(id, List.of());
+            BookingDto lastBooking = withLast
+                    ? lastBooking(itemBookings, loaded.archivedLastByItemId().get(id), now) : null;
+            BookingDto nextBooking = withNext ? nextBooking(itemBookings, now) : null;
+            List<CommentDto> comments = !withComments ? null : loaded.commentsByItemId()
+                    .getOrDefault(id, new ArrayList<>());
+            items.add(ItemMapper.toItemWithBookingDto(item, lastBooking, nextBooking, comments));
+        }
+        return new ItemBatchDto(items, missingIds);
+    }
+
+    private ItemBatch loadItemBatch(Long userId, List<Long> ids, boolean withLast, boolean withNext,
+                                    boolean withComments) {
+        Map<Long, Item> itemsById = itemRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+
+        Map<Long, List<Booking>> bookingsByItemId = Map.of();
+        List<Long> ownedIds = itemsById.values().stream()
+                .filter(item -> item.getOwner().getId().equals(userId))
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        if ((withLast || withNext) && !ownedIds.isEmpty()) {
+            bookingsByItemId = bookingRepository.findByItemIdInAndStatus(ownedIds, BookingStatus.APPROVED).stream()
+                    .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        }
+        Map<Long, ArchivedBooking> archivedLastByItemId = withLast
+                ? archivedLastBookings(ownedIds, bookingsByItemId) : Map.of();
+
+        Map<Long, List<CommentDto>> commentsByItemId = Map.of();
+        if (withComments && !itemsById.isEmpty()) {
+            commentsByItemId = commentRepository.findLatestByItemIdIn(List.copyOf(itemsById.keySet()),
+                            embeddedComments).stream()
+                    .collect(Collectors.groupingBy(CommentView::getItemId,
+                            Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+        }
+        return new ItemBatch(itemsById, bookingsByItemId, archivedLastByItemId, commentsByItemId);
+    }
+
+    /**
+     * Завершённые бронирования со временем уходят в bookings_archive. Для предметов, у которых
+     * в живой таблице не осталось начавшихся бронирований, последнее берётся из архива.
+     */
+    private Map<Long, ArchivedBooking> archivedLastBookings(List<Long> itemIds,
+                                                            Map<Long, List<Booking>> bookingsByItemId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> withoutLiveLast = itemIds.stream()
+                .filter(id -> bookingsByItemId.getOrDefault(id, List.of()).stream()
+                        .noneMatch(booking -> booking.getStart().isBefore(now)))
+                .collect(Collectors.toList());
+        if (withoutLiveLast.isEmpty()) {
+            return Map.of();
+        }
+        return archivedBookingRepository.findLatestByItemIdInAndStatus(withoutLiveLast, BookingStatus.APPROVED)
+                .stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), booking -> booking,
+                        (b1, b2) -> b1.getId() > b2.getId() ? b1 : b2));
+    }
+
+    private BookingDto lastBooking(List<Booking> itemBookings, ArchivedBooking archivedLast, LocalDateTime now) {
+        return itemBookings.stream()
+                .filter(booking -> booking.getStart().isBefore(now))
+                .max((b1, b2) -> b1.getStart().compareTo(b2.getStart()))
+                .map(BookingMapper::toBookingDto)
+                .orElseGet(() -> archivedLast == null ? null : BookingMapper.toBookingDto(archivedLast));
+    }
+
+    private BookingDto nextBooking(List<Booking> itemBookings, LocalDateTime now) {
+        return itemBookings.stream()
+                .filter(booking -> booking.getStart().isAfter(now))
+                .min((b1, b2) -> b1.getStart().compareTo(b2.getStart()))
+                .map(BookingMapper::toBookingDto)
+                .orElse(null);
+    }
+
+    @Override
+    public CommentPageDto getComments(Long itemId, String cursor, int size) {
+        if (size <= 0) {
+            throw new ValidationException("Некорректные параметры пагинации");
+        }
+
+        itemRepository.findById(itemId)
+                .orElseThrow(() -> new ItemNotFoundException("Предмет не найден"));
+
+        PageRequest page = PageRequest.of(0, size);
+        List<CommentDto> comments;
+        if (cursor == null || cursor.isBlank()) {
+            comments = commentRepository.findFirstPageByItemId(itemId, page);
+        } else {
+            int separator = cursor.lastIndexOf('_');
+            LocalDateTime created;
+            Long id;
+            try {
+                created = LocalDateTime.parse(cursor.substring(0, separator));
+                id = Long.parseLong(cursor.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new ValidationException("Некорректный курсор: " + cursor);
+            }
+            comments = commentRepository.findPageByItemIdBefore(itemId, created, id, page);
+        }
+
+        String nextCursor = null;
+        if (comments.size() == size) {
+            CommentDto last = comments.get(comments.size() - 1);
+            nextCursor = last.getCreated() + "_" + last.getId();
+        }
+        return new CommentPageDto(comments, nextCursor);
+    }
+
+    @Override
+    public String getItemsByOwnerEtag(Long userId, Set<ItemField> fields) {
+        if (userRepository.findById(userId).isEmpty()) {
+            return null;
+        }
+
+        OwnerItemsVersionView items = itemRepository.findVersionsByOwnerId(userId);
+        OwnerBookingsVersionView bookings = bookingRepository.findVersionsByItemOwnerId(
+                userId, LocalDateTime.now(), BookingStatus.APPROVED);
+
+        return "\"o" + userId + "-" + items.getTotal() + "-" + items.getVersionSum() + "-" +
+                bookings.getTotal() + "-" + bookings.getVersionSum() + "-" + bookings.getStartedCount() + "-" +
+                ItemField.key(fields) + "\"";
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<ItemDto> searchItems(String text) {
         if (text == null || text.trim().isEmpty()) {
             return new ArrayList<>();
         }
 
-        String searchText = text.toLowerCase();
-        return itemRepository.search(text).stream()
+        String searchText = SearchCache.normalise(text);
+        List<ItemDto> cached = searchCache.get(searchText);
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = searchCache.version();
+        List<ItemDto> result = readOnlyTransactions.read(() -> itemRepository.search(searchText)).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+        searchCache.put(searchText, version, result);
+        return result;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ItemSuggestionDto> autocomplete(String prefix, int limit) {
+        return itemNameIndex.suggest(prefix, limit);
+    }
+
+    @Override
+    public List<ItemDto> searchFreeItems(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Некорректные параметры пагинации");
+        }
+        if (!start.isBefore(end)) {
+            throw new ValidationException("Дата начала должна быть раньше даты окончания");
+        }
+        if (text == null || text.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return itemRepository.searchFree(text, start, end, BookingStatus.APPROVED, OffsetPageRequest.of(from, size))
+                .stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
@@ -167,10 +486,7 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException("Предмет не найден"));
 
-        List<Booking> userBookings = bookingRepository.findByBookerIdAndItemIdAndStatusAndEndBefore(
-                userId, itemId, BookingStatus.APPROVED, LocalDateTime.now());
-
-        if (userBookings.isEmpty()) {
+        if (!canComment(userId, itemId)) {
             throw new RuntimeException("Вы можете комментировать только те предметы, которые бронировали");
         }
 
@@ -181,7 +497,22 @@ public class ItemServiceImpl implements ItemService {
         comment.setCreated(LocalDateTime.now());
 
         Comment savedComment = commentRepository.save(comment);
-        return toCommentDto(savedComment);
+        itemRepository.incrementVersion(itemId);
+        itemStatsRepository.commentAdded(itemId, savedComment.getCreated());
+        CommentDto result = CommentMapper.toCommentDto(savedComment);
+        outboxWriter.write(OutboxWriter.ITEM, itemId, OutboxEventType.COMMENT_ADDED, result);
+        return result;
+    }
+
+    private boolean canComment(Long userId, Long itemId) {
+        if (commentEligibilityRepository.existsById(new CommentEligibilityId(userId, itemId))) {
+            return true;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(
+                userId, itemId, BookingStatus.APPROVED, now) ||
+                archivedBookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(
+                        userId, itemId, BookingStatus.APPROVED, now);
     }
 
     private void validateItemForCreation(ItemDto itemDto, Long userId) {
@@ -206,25 +537,16 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    private ItemWithBookingDto toItemWithBookingDto(Item item, BookingDto lastBooking,
-                                                    BookingDto nextBooking, List<CommentDto> comments) {
-        ItemWithBookingDto dto = new ItemWithBookingDto();
-        dto.setId(item.getId());
-        dto.setName(item.getName());
-        dto.setDescription(item.getDescription());
-        dto.setAvailable(item.getAvailable());
-        dto.setLastBooking(lastBooking);
-        dto.setNextBooking(nextBooking);
-        dto.setComments(comments);
-        return dto;
+    /**
+     * Вещи владельца с бронированиями и комментариями, загруженные в одной короткой транзакции.
+     */
+    private record OwnerItems(List<Item> items, Map<Long, List<Booking>> bookingsByItemId,
+                              Map<Long, ArchivedBooking> archivedLastByItemId,
+                              Map<Long, List<CommentDto>> commentsByItemId) {
     }
 
-    private CommentDto toCommentDto(Comment comment) {
-        CommentDto dto = new CommentDto();
-        dto.setId(comment.getId());
-        dto.setText(comment.getText());
-        dto.setAuthorName(comment.getAuthor().getName());
-        dto.setCreated(comment.getCreated());
-        return dto;
+    private record ItemBatch(Map<Long, Item> itemsById, Map<Long, List<Booking>> bookingsByItemId,
+                             Map<Long, ArchivedBooking> archivedLastByItemId,
+                             Map<Long, List<CommentDto>> commentsByItemId) {
     }
 }
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш результатов поиска по нормализованному запросу. Все записи привязаны к версии каталога,
+ * которая растёт после коммита любого изменения предметов. Объём ограничен оценкой занимаемой
+ * памяти, вытесняются давно не читанные записи (LRU).
+ * <p>
+ * Версия живёт в памяти процесса: изменения, сделанные другим экземпляром, сюда не доходят,
+ * а промах читается с реплики, которая может отставать от коммита. Поэтому записи ещё и живут
+ * не дольше ttl — это верхняя граница устаревания выдачи.
+ */
+@Component
+public class SearchCache {
+
+    private static final long ENTRY_OVERHEAD = 128;
+    private static final long ITEM_OVERHEAD = 96;
+
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final LinkedHashMap<String, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hits;
+    private final Counter misses;
+    private long weight;
+
+    public SearchCache(@Value("${shareit.search.cache.max-weight-bytes:16777216}") long maxWeight,
+                       @Value("${shareit.search.cache.ttl-ms:30000}") long ttlMillis,
+                       MeterRegistry meterRegistry) {
+        this.maxWeight = maxWeight;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.hits = Counter.builder("shareit.search.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("shareit.search.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("shareit.search.cache.weight", this, SearchCache::currentWeight)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.cache.entries", this, SearchCache::currentSize)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Приводит запрос к ключу кэша: обрезка, нижний регистр, одиночные пробелы между словами.
+     */
+    public static String normalise(String text) {
+        return String.join(" ", text.trim().toLowerCase(Locale.ROOT).split("\\s+"));
+    }
+
+    /**
+     * Версия каталога, которую нужно прочитать до запроса в БД и передать в put.
+     * Результат, полученный до изменения каталога, так и останется под старой версией.
+     */
+    public long version() {
+        return catalogVersion.get();
+    }
+
+    public synchronized List<ItemDto> get(String query) {
+        Entry entry = cache.get(query);
+        if (entry != null && System.nanoTime() - entry.createdAt() > ttlNanos) {
+            cache.remove(query);
+            weight -= entry.weight();
+            entry = null;
+        }
+        if (entry == null || entry.version() != catalogVersion.get()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.results();
+    }
+
+    public synchronized void put(String query, long version, List<ItemDto> results) {
+        if (version != catalogVersion.get()) {
+            return;
+        }
+        long entryWeight = weigh(query, results);
+        if (entryWeight > maxWeight) {
+            return;
+        }
+
+        Entry previous = cache.put(query, new Entry(version, List.copyOf(results), entryWeight, System.nanoTime()));
+        if (previous != null) {
+            weight -= previous.weight();
+        }
+        weight += entryWeight;
+
+        Iterator<Map.Entry<String, Entry>> eldest = cache.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            weight -= eldest.next().getValue().weight();
+            eldest.remove();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        invalidateAll();
+    }
+
+    public synchronized void invalidateAll() {
+        catalogVersion.incrementAndGet();
+        cache.clear();
+        weight = 0;
+    }
+
+    private synchronized long currentWeight() {
+        return weight;
+    }
+
+    private synchronized int currentSize() {
+        return cache.size();
+    }
+
+    private static long weigh(String query, List<ItemDto> results) {
+        long total = ENTRY_OVERHEAD + 2L * query.length();
+        for (ItemDto item : results) {
+            total += ITEM_OVERHEAD + 2L * (length(item.getName()) + length(item.getDescription()));
+        }
+        return total;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private record Entry(long version, List<ItemDto> results, long weight, long createdAt) {
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Дописывает события в файл по одному JSON-объекту на строку.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public FileOutboxSink(@Value("${shareit.outbox.file:outbox.jsonl}") String path, ObjectMapper objectMapper) {
+        this.path = Path.of(path);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void send(List<OutboxEvent> events) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxEvent event : events) {
+                ObjectNode line = objectMapper.createObjectNode();
+                line.put("id", event.getId());
+                line.put("aggregateType", event.getAggregateType());
+                line.put("aggregateId", event.getAggregateId());
+                line.put("eventType", event.getEventType().name());
+                line.put("createdAt", event.getCreatedAt().toString());
+                line.set("payload", objectMapper.readTree(event.getPayload()));
+                writer.write(objectMapper.writeValueAsString(line));
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Хранит отправленные события в памяти; используется в тестах (shareit.outbox.sink=memory).
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.outbox.sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final List<OutboxEvent> events = new ArrayList<>();
+
+    @Override
+    public synchronized void send(List<OutboxEvent> batch) {
+        events.addAll(batch);
+    }
+
+    public synchronized List<OutboxEvent> getEvents() {
+        return List.copyOf(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+}
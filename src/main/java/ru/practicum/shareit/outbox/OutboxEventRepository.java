@@ -0,0 +1,15 @@
+package ru.practicum.shareit.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query(value = "SELECT * FROM outbox_events WHERE created_at < ?1 ORDER BY id LIMIT ?2", nativeQuery = true)
+    List<OutboxEvent> findOldestCreatedBefore(LocalDateTime cutoff, int limit);
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Переносит события из outbox в OutboxSink пачками в порядке id.
+ * Пачка удаляется только после успешной отправки, поэтому доставка — как минимум один раз.
+ * Рассчитан на один экземпляр релея: при нескольких экземплярах порядок не гарантируется.
+ * <p>
+ * id выдаётся при вставке, а не при коммите, поэтому событие с меньшим id может стать видимым позже
+ * большего. Релей берёт только события старше commit-lag-ms: транзакции, закоммиченные за это время
+ * после вставки, порядок не нарушают. Для более долгих транзакций порядок — по возможности,
+ * потребители должны терпеть перестановки.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${shareit.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${shareit.outbox.batches-per-run:20}")
+    private int batchesPerRun;
+
+    @Value("${shareit.outbox.commit-lag-ms:5000}")
+    private long commitLagMillis;
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.delay-ms:1000}")
+    public void relay() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(commitLagMillis, ChronoUnit.MILLIS);
+        for (int i = 0; i < batchesPerRun; i++) {
+            List<OutboxEvent> batch = transactionTemplate.execute(
+                    status -> outboxEventRepository.findOldestCreatedBefore(cutoff, batchSize));
+            if (batch == null || batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                outboxSink.send(batch);
+            } catch (Exception e) {
+                log.warn("Не удалось отправить события outbox начиная с id {}, повтор на следующем запуске",
+                        batch.get(0).getId(), e);
+                return;
+            }
+
+            List<Long> ids = batch.stream()
+                    .map(OutboxEvent::getId)
+                    .collect(Collectors.toList());
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteAllByIdInBatch(ids));
+
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.outbox;
+
+import java.util.List;
+
+/**
+ * Получатель событий из outbox. Пачка передаётся в порядке id; если send бросает исключение,
+ * пачка остаётся в таблице и будет отправлена повторно, поэтому получатель должен быть идемпотентным по id.
+ */
+public interface OutboxSink {
+
+    void send(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Записывает событие в outbox в транзакции вызывающего сервиса: событие и изменение сущности
+ * коммитятся или откатываются вместе.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    public static final String BOOKING = "BOOKING";
+    public static final String ITEM = "ITEM";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void write(String aggregateType, Long aggregateId, OutboxEventType eventType, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие " + eventType, e);
+        }
+
+        outboxEventRepository.save(new OutboxEvent(null, aggregateType, aggregateId, eventType, json,
+                LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Следит за средним временем ожидания соединения Hikari (метрика hikaricp.connections.acquire)
+ * между замерами. Пока оно выше порога, запросы на запись отклоняются сразу, не вставая в очередь за JDBC.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class ConnectionPoolLoadShedder {
+
+    private static final String ACQUIRE_METRIC = "hikaricp.connections.acquire";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${shareit.load-shedding.max-acquire-ms:200}")
+    private double maxAcquireMillis;
+
+    private long lastCount;
+    private double lastTotalMillis;
+    private volatile boolean overloaded;
+
+    public boolean isOverloaded() {
+        return overloaded;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.load-shedding.sample-ms:1000}")
+    public void sample() {
+        long count = 0;
+        double totalMillis = 0;
+        for (Timer timer : meterRegistry.find(ACQUIRE_METRIC).timers()) {
+            count += timer.count();
+            totalMillis += timer.totalTime(TimeUnit.MILLISECONDS);
+        }
+
+        long acquired = count - lastCount;
+        double waitedMillis = totalMillis - lastTotalMillis;
+        lastCount = count;
+        lastTotalMillis = totalMillis;
+
+        boolean nowOverloaded = acquired > 0 && waitedMillis / acquired > maxAcquireMillis;
+        if (nowOverloaded != overloaded) {
+            log.warn(nowOverloaded
+                    ? "Ожидание соединения с БД выше {} мс, запросы на запись отклоняются"
+                    : "Ожидание соединения с БД ниже {} мс, приём запросов на запись возобновлён", maxAcquireMillis);
+        }
+        overloaded = nowOverloaded;
+    }
+}
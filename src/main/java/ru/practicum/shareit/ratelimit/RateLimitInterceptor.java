@@ -0,0 +1,43 @@
+package ru.practicum.shareit.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.datasource.RequestUserContext;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+/**
+ * Отсекает запросы на запись до открытия транзакции: 503 при перегрузке пула соединений,
+ * 429 при превышении лимита пользователя.
+ */
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final UserRateLimiter rateLimiter;
+    private final ConnectionPoolLoadShedder loadShedder;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+
+        if (loadShedder.isOverloaded()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            throw new ServiceOverloadedException("Сервис перегружен, повторите запрос позже");
+        }
+
+        Long userId = RequestUserContext.getUserId();
+        if (userId != null) {
+            long retryAfter = rateLimiter.tryAcquire(userId);
+            if (retryAfter > 0) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+                throw new TooManyRequestsException("Слишком много запросов, повторите через " + retryAfter + " с");
+            }
+        }
+        return true;
+    }
+}
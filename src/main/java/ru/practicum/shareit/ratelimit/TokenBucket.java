@@ -0,0 +1,47 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Токен-бакет в форме GCRA: всё состояние — одно «теоретическое время прихода» (TAT) в наносекундах,
+ * поэтому захват токена — один CAS без блокировок.
+ */
+public class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int capacity, double tokensPerSecond, long now) {
+        this.nanosPerToken = (long) (1_000_000_000L / tokensPerSecond);
+        this.burstNanos = nanosPerToken * capacity;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    public boolean tryAcquire(long now) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, now) + nanosPerToken;
+            if (next - now > burstNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Через сколько наносекунд освободится следующий токен.
+     */
+    public long nanosUntilAvailable(long now) {
+        return Math.max(0, theoreticalArrival.get() + nanosPerToken - burstNanos - now);
+    }
+
+    /**
+     * Бакет полностью восполнился не позже чем idleNanos назад — его можно удалить без потери состояния.
+     */
+    public boolean isIdle(long now, long idleNanos) {
+        return theoreticalArrival.get() <= now - idleNanos;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничение частоты запросов на запись по пользователю. Бакеты лежат в ConcurrentHashMap,
+ * простаивающие удаляются по расписанию.
+ */
+@Component
+@Lazy(false)
+public class UserRateLimiter {
+
+    private final ConcurrentMap<Long, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Value("${shareit.rate-limit.capacity:10}")
+    private int capacity;
+
+    @Value("${shareit.rate-limit.tokens-per-second:2}")
+    private double tokensPerSecond;
+
+    @Value("${shareit.rate-limit.idle-evict-seconds:600}")
+    private long idleEvictSeconds;
+
+    /**
+     * @return 0, если запрос разрешён, иначе через сколько секунд повторить
+     */
+    public long tryAcquire(Long userId) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.computeIfAbsent(userId, id -> new TokenBucket(capacity, tokensPerSecond, now));
+        if (bucket.tryAcquire(now)) {
+            return 0;
+        }
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(bucket.nanosUntilAvailable(now) + 999_999_999L));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.rate-limit.evict-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.SECONDS.toNanos(idleEvictSeconds);
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Спан на каждый вызов репозитория внутри сэмплированного запроса, с состоянием транзакции
+ * на момент вызова. Вне трассы аспект сводится к чтению ThreadLocal.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryTracingAspect {
+
+    private final Tracer tracer;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object traceRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Span span = tracer.startSpan(SpanKind.REPOSITORY,
+                repositoryName(joinPoint.getThis()) + "." + joinPoint.getSignature().getName());
+        if (span == null) {
+            return joinPoint.proceed();
+        }
+
+        span.attribute("tx.active", TransactionSynchronizationManager.isActualTransactionActive())
+                .attribute("tx.readOnly", TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+                .attribute("tx.name", TransactionSynchronizationManager.getCurrentTransactionName());
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.fail(e);
+            throw e;
+        } finally {
+            tracer.finish(span);
+        }
+    }
+
+    private String repositoryName(Object proxy) {
+        return repositoryNames.computeIfAbsent(proxy.getClass(), type -> {
+            for (Class<?> candidate : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+                if (candidate.getName().startsWith("ru.practicum.shareit.")) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Завершённый или выполняющийся участок трассы. Время — в микросекундах.
+ */
+@Getter
+public class Span {
+    private final String traceId;
+    private final int spanId;
+    private final Integer parentId;
+    private final SpanKind kind;
+    private final String name;
+    private final long startEpochMicros;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private long durationMicros;
+    private String error;
+
+    @Getter(AccessLevel.NONE)
+    private final long startNanos;
+
+    Span(String traceId, int spanId, Integer parentId, SpanKind kind, String name) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentId = parentId;
+        this.kind = kind;
+        this.name = name;
+        this.startEpochMicros = System.currentTimeMillis() * 1000;
+        this.startNanos = System.nanoTime();
+    }
+
+    public Span attribute(String key, Object value) {
+        attributes.put(key, value);
+        return this;
+    }
+
+    public void fail(Throwable throwable) {
+        this.error = throwable.getClass().getSimpleName();
+    }
+
+    void finish() {
+        this.durationMicros = (System.nanoTime() - startNanos) / 1000;
+    }
+}
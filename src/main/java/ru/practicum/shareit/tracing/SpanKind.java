@@ -0,0 +1,6 @@
+package ru.practicum.shareit.tracing;
+
+public enum SpanKind {
+    REQUEST,
+    REPOSITORY
+}
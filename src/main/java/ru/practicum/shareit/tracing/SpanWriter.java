@@ -0,0 +1,77 @@
+package ru.practicum.shareit.tracing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограниченный буфер спанов. Потоки запросов только кладут спан в очередь и никогда не ждут:
+ * при переполнении спан отбрасывается и учитывается в счётчике. Запись в лог shareit.tracing
+ * (по JSON-строке на спан) выполняет планировщик.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+public class SpanWriter {
+
+    private static final Logger TRACE_LOG = LoggerFactory.getLogger("shareit.tracing");
+
+    private final BlockingQueue<Span> buffer;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    @Value("${shareit.tracing.flush-batch-size:1000}")
+    private int flushBatchSize;
+
+    public SpanWriter(@Value("${shareit.tracing.buffer-size:10000}") int bufferSize, ObjectMapper objectMapper) {
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.objectMapper = objectMapper;
+    }
+
+    public void submit(Span span) {
+        if (!buffer.offer(span)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.tracing.flush-ms:500}")
+    public void flush() {
+        List<Span> batch = new ArrayList<>(flushBatchSize);
+        while (buffer.drainTo(batch, flushBatchSize) > 0) {
+            for (Span span : batch) {
+                try {
+                    TRACE_LOG.info(objectMapper.writeValueAsString(span));
+                } catch (JsonProcessingException e) {
+                    log.warn("Не удалось сериализовать спан {}", span.getName(), e);
+                }
+            }
+            written.addAndGet(batch.size());
+            batch.clear();
+        }
+    }
+
+    public int getQueued() {
+        return buffer.size();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+}
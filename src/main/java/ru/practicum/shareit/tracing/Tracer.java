@@ -0,0 +1,101 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сэмплирующий трассировщик: решение о записи принимается один раз на запрос.
+ * Для несэмплированного запроса в потоке нет трассы, и дочерние спаны не создаются вовсе.
+ */
+@Component
+@RequiredArgsConstructor
+public class Tracer {
+
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    private final SpanWriter spanWriter;
+    private final AtomicLong forcedUntilMillis = new AtomicLong();
+
+    @Value("${shareit.tracing.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${shareit.tracing.max-force-seconds:600}")
+    private long maxForceSeconds;
+
+    /**
+     * @param forced запрос явно попросил трассировку
+     * @return корневой спан или null, если запрос не попал в выборку
+     */
+    public Span startTrace(SpanKind kind, String name, boolean forced) {
+        if (!forced && !isForcedGlobally() && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return null;
+        }
+        Trace trace = new Trace(Long.toHexString(ThreadLocalRandom.current().nextLong()));
+        CURRENT.set(trace);
+        return trace.push(kind, name);
+    }
+
+    /**
+     * @return дочерний спан или null, если текущий поток не трассируется
+     */
+    public Span startSpan(SpanKind kind, String name) {
+        Trace trace = CURRENT.get();
+        return trace == null ? null : trace.push(kind, name);
+    }
+
+    public void finish(Span span) {
+        Trace trace = CURRENT.get();
+        span.finish();
+        spanWriter.submit(span);
+        if (trace != null) {
+            trace.spans.remove(span);
+            if (span.getParentId() == null) {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Включает трассировку всех запросов на заданное время, но не дольше max-force-seconds:
+     * забытое включение не должно писать каждый запрос часами. Неположительное значение выключает её.
+     */
+    public void forceFor(long seconds) {
+        long clamped = Math.max(0, Math.min(seconds, maxForceSeconds));
+        forcedUntilMillis.set(System.currentTimeMillis() + clamped * 1000);
+    }
+
+    public long getForcedUntilMillis() {
+        return forcedUntilMillis.get();
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    private boolean isForcedGlobally() {
+        return forcedUntilMillis.get() > System.currentTimeMillis();
+    }
+
+    private static final class Trace {
+        private final String traceId;
+        private final Deque<Span> spans = new ArrayDeque<>();
+        private int nextSpanId = 1;
+
+        private Trace(String traceId) {
+            this.traceId = traceId;
+        }
+
+        private Span push(SpanKind kind, String name) {
+            Span parent = spans.peek();
+            Span span = new Span(traceId, nextSpanId++, parent == null ? null : parent.getSpanId(), kind, name);
+            spans.push(span);
+            return span;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/tracing — состояние буфера спанов. POST с seconds включает трассировку
+ * всех запросов на это время, не больше shareit.tracing.max-force-seconds. Доступен только
+ * на management-порту.
+ */
+@Component
+@Endpoint(id = "tracing")
+@RequiredArgsConstructor
+public class TracingEndpoint {
+
+    private final Tracer tracer;
+    private final SpanWriter spanWriter;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("sampleRate", tracer.getSampleRate());
+        status.put("forcedUntil", Instant.ofEpochMilli(tracer.getForcedUntilMillis()));
+        status.put("queued", spanWriter.getQueued());
+        status.put("written", spanWriter.getWritten());
+        status.put("dropped", spanWriter.getDropped());
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> force(long seconds) {
+        tracer.forceFor(seconds);
+        return status();
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Корневой спан на HTTP-запрос. Заголовок X-Trace: true принудительно включает запись
+ * для одного запроса; идентификатор трассы возвращается в X-Trace-Id.
+ * Заголовок учитывается только при shareit.tracing.header-enabled=true (по умолчанию выключено):
+ * иначе любой клиент мог бы обойти выборку и забить буфер трасс. Включать там, где к сервису
+ * ходят только доверенные клиенты, например на стенде или за шлюзом, вырезающим заголовок.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class TracingFilter extends OncePerRequestFilter {
+
+    static final String FORCE_HEADER = "X-Trace";
+    static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private final Tracer tracer;
+
+    @Value("${shareit.tracing.header-enabled:false}")
+    private boolean headerEnabled;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean forced = headerEnabled && Boolean.parseBoolean(request.getHeader(FORCE_HEADER));
+        Span span = tracer.startTrace(SpanKind.REQUEST, request.getMethod(), forced);
+        if (span == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        response.setHeader(TRACE_ID_HEADER, span.getTraceId());
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.fail(e);
+            throw e;
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            span.attribute("http.route", pattern != null ? pattern : request.getRequestURI())
+                    .attribute("http.status", response.getStatus());
+            tracer.finish(span);
+        }
+    }
+}
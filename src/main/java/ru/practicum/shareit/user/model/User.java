@@ -19,4 +19,11 @@ public class User {
 
     @Column(name = "email", nullable = false, unique = true)
     private String email;
+
+    @Column(name = "is_deleted", nullable = false)
+    private Boolean deleted = false;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.user.model;
+
+public enum UserDeletionStage {
+    COMMENTS,
+    ITEM_COMMENTS,
+    BOOKINGS,
+    ITEM_BOOKINGS,
+    ARCHIVED_BOOKINGS,
+    ITEM_ARCHIVED_BOOKINGS,
+    ELIGIBILITY,
+    ITEMS,
+    USER,
+    DONE
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.user.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.user.model.UserDeletion;
+import ru.practicum.shareit.user.model.UserDeletionStage;
+
+import java.util.List;
+
+@Repository
+public interface UserDeletionRepository extends JpaRepository<UserDeletion, Long> {
+
+    List<UserDeletion> findByStageNotOrderByRequestedAt(UserDeletionStage stage);
+}
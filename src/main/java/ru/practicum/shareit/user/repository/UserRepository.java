@@ -1,12 +1,22 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends JpaRepository<User,Long> {
 
+    @Override
+    @Query("SELECT u FROM User u WHERE u.id = ?1 AND u.deleted = false")
+    Optional<User> findById(Long id);
+
+    List<User> findByDeletedFalse();
+
     boolean existsByEmail(String email);
 
     boolean existsByEmailAndIdNot(String email, Long id);
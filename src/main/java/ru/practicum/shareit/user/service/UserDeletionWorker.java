@@ -0,0 +1,167 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.CommentEligibilityRepository;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.event.ItemChangeType;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemStatsRepository;
+import ru.practicum.shareit.item.service.ItemAvailabilityCache;
+import ru.practicum.shareit.user.model.UserDeletion;
+import ru.practicum.shareit.user.model.UserDeletionStage;
+import ru.practicum.shareit.user.repository.UserDeletionRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Фоновое удаление данных пользователя, помеченного как удалённый.
+ * Каждая пачка удаляется в отдельной короткой транзакции, поэтому блокировки
+ * на таблицах бронирований не удерживаются дольше одной пачки.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class UserDeletionWorker {
+
+    private final UserDeletionRepository userDeletionRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemStatsRepository itemStatsRepository;
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final CommentRepository commentRepository;
+    private final CommentEligibilityRepository commentEligibilityRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemAvailabilityCache availabilityCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${shareit.user-deletion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${shareit.user-deletion.batches-per-run:20}")
+    private int batchesPerRun;
+
+    @Scheduled(fixedDelayString = "${shareit.user-deletion.delay-ms:1000}")
+    public void processPendingDeletions() {
+        List<UserDeletion> pending = userDeletionRepository.findByStageNotOrderByRequestedAt(UserDeletionStage.DONE);
+        int budget = batchesPerRun;
+
+        for (UserDeletion deletion : pending) {
+            while (budget > 0) {
+                budget--;
+                Boolean hasMore = transactionTemplate.execute(status -> runBatch(deletion.getUserId()));
+                if (!Boolean.TRUE.equals(hasMore)) {
+                    break;
+                }
+            }
+            if (budget == 0) {
+                return;
+            }
+        }
+    }
+
+    private boolean runBatch(Long userId) {
+        UserDeletion deletion = userDeletionRepository.findById(userId).orElse(null);
+        if (deletion == null || deletion.getStage() == UserDeletionStage.DONE) {
+            return false;
+        }
+
+        int removed = deleteBatch(userId, deletion.getStage());
+        LocalDateTime now = LocalDateTime.now();
+
+        if (removed == 0) {
+            UserDeletionStage next = UserDeletionStage.values()[deletion.getStage().ordinal() + 1];
+            deletion.setStage(next);
+            if (next == UserDeletionStage.DONE) {
+                deletion.setFinishedAt(now);
+                log.info("Удаление данных пользователя {} завершено, удалено записей: {}",
+                        userId, deletion.getProcessed());
+            }
+        } else {
+            deletion.setProcessed(deletion.getProcessed() + removed);
+        }
+
+        deletion.setUpdatedAt(now);
+        userDeletionRepository.save(deletion);
+        return deletion.getStage() != UserDeletionStage.DONE;
+    }
+
+    private int deleteBatch(Long userId, UserDeletionStage stage) {
+        List<Long> ids;
+
+        switch (stage) {
+            case COMMENTS:
+                ids = commentRepository.findIdsByAuthorId(userId, batchSize);
+                if (!ids.isEmpty()) {
+                    itemRepository.incrementVersionsByCommentIds(ids);
+                    List<Long> itemIds = commentRepository.findItemIdsByIds(ids);
+                    commentRepository.deleteAllByIdInBatch(ids);
+                    itemStatsRepository.recomputeComments(itemIds);
+                }
+                break;
+            case ITEM_COMMENTS:
+                ids = commentRepository.findIdsByItemOwnerId(userId, batchSize);
+                commentRepository.deleteAllByIdInBatch(ids);
+                break;
+            case BOOKINGS:
+                ids = bookingRepository.findIdsByBookerId(userId, batchSize);
+                if (!ids.isEmpty()) {
+                    List<Long> itemIds = bookingRepository.findItemIdsByIds(ids);
+                    bookingRepository.deleteAllByIdInBatch(ids);
+                    itemStatsRepository.recomputeBookingCounts(itemIds);
+                    availabilityCache.invalidateAll();
+                }
+                break;
+            case ITEM_BOOKINGS:
+                ids = bookingRepository.findIdsByItemOwnerId(userId, batchSize);
+                bookingRepository.deleteAllByIdInBatch(ids);
+                break;
+            case ARCHIVED_BOOKINGS:
+                ids = archivedBookingRepository.findIdsByBookerId(userId, batchSize);
+                if (!ids.isEmpty()) {
+                    List<Long> itemIds = archivedBookingRepository.findItemIdsByIds(ids);
+                    archivedBookingRepository.deleteAllByIdInBatch(ids);
+                    itemStatsRepository.recomputeBookingCounts(itemIds);
+                }
+                break;
+            case ITEM_ARCHIVED_BOOKINGS:
+                ids = archivedBookingRepository.findIdsByItemOwnerId(userId, batchSize);
+                archivedBookingRepository.deleteAllByIdInBatch(ids);
+                break;
+            case ELIGIBILITY:
+                int removed = commentEligibilityRepository.deleteByBookerId(userId, batchSize);
+                if (removed == 0) {
+                    removed = commentEligibilityRepository.deleteByItemOwnerId(userId, batchSize);
+                }
+                return removed;
+            case ITEMS:
+                ids = itemRepository.findIdsByOwnerId(userId, batchSize);
+                itemStatsRepository.deleteAllByIdInBatch(ids);
+                itemRepository.deleteAllByIdInBatch(ids);
+                if (!ids.isEmpty()) {
+                    eventPublisher.publishEvent(new ItemChangedEvent(ids, ItemChangeType.DELETED));
+                }
+                break;
+            case USER:
+                userRepository.deleteAllByIdInBatch(List.of(userId));
+                return 0;
+            default:
+                throw new IllegalStateException("Неизвестный этап удаления: " + stage);
+        }
+
+        return ids.size();
+    }
+}
@@ -1,7 +1,14 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.event.ItemChangeType;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.UserDeletion;
+import ru.practicum.shareit.user.model.UserDeletionStage;
+import ru.practicum.shareit.user.repository.UserDeletionRepository;
 import ru.practicum.shareit.user.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -9,6 +16,7 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.validator.EmailValidator;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -18,6 +26,9 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserDeletionRepository userDeletionRepository;
+    private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -69,7 +80,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public List<UserDto> getAllUsers() {
-        return userRepository.findAll().stream()
+        return userRepository.findByDeletedFalse().stream()
                 .map(UserMapper::toUserDto)
                 .collect(Collectors.toList());
     }
@@ -77,7 +88,19 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void deleteUser(Long userId) {
-        userRepository.deleteById(userId);
+        userRepository.findById(userId).ifPresent(user -> {
+            user.setDeleted(true);
+            user.setEmail("deleted-" + userId + "@shareit.invalid");
+            userRepository.save(user);
+
+            LocalDateTime now = LocalDateTime.now();
+            userDeletionRepository.save(new UserDeletion(userId, UserDeletionStage.COMMENTS, 0L, now, now, null));
+
+            List<Long> itemIds = itemRepository.findAllIdsByOwnerId(userId);
+            if (!itemIds.isEmpty()) {
+                eventPublisher.publishEvent(new ItemChangedEvent(itemIds, ItemChangeType.DELETED));
+            }
+        });
     }
 
     private void validateUserData(UserDto userDto, boolean isCreation) {
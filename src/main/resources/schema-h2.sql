@@ -0,0 +1,23 @@
+CREATE TABLE IF NOT EXISTS bookings (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    phase VARCHAR(16) NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_booking PRIMARY KEY (id),
+    CONSTRAINT fk_bookings_to_items FOREIGN KEY (item_id) REFERENCES items (id),
+    CONSTRAINT fk_bookings_to_users FOREIGN KEY (booker_id) REFERENCES users (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_booker ON bookings (booker_id);
+CREATE INDEX IF NOT EXISTS idx_booking_item ON bookings (item_id);
+CREATE INDEX IF NOT EXISTS idx_booking_end_date ON bookings (end_date);
+CREATE INDEX IF NOT EXISTS idx_booking_start_date ON bookings (start_date);
+CREATE INDEX IF NOT EXISTS idx_booking_booker_phase ON bookings (booker_id, phase);
+CREATE INDEX IF NOT EXISTS idx_booking_item_phase ON bookings (item_id, phase);
+CREATE INDEX IF NOT EXISTS idx_booking_item_status_start ON bookings (item_id, status, start_date, end_date);
+CREATE INDEX IF NOT EXISTS idx_booking_phase_start ON bookings (phase, start_date);
+CREATE INDEX IF NOT EXISTS idx_booking_phase_end ON bookings (phase, end_date);
\ No newline at end of file
@@ -1,9 +1,11 @@
-DROP TABLE IF EXISTS comments, booking, items, users;
+DROP TABLE IF EXISTS job_watermarks, outbox_events, item_stats, comment_eligibility, user_deletions, comments, bookings_archive, bookings, items, users;
 
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(512) NOT NULL,
+    is_deleted BOOLEAN DEFAULT FALSE NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (id),
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
@@ -15,22 +17,11 @@ CREATE TABLE IF NOT EXISTS items (
     is_available BOOLEAN NOT NULL,
     owner_id BIGINT NOT NULL,
     request_id BIGINT,
+    version BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT pk_item PRIMARY KEY (id),
     CONSTRAINT fk_items_to_users FOREIGN KEY (owner_id) REFERENCES users (id)
 );
 
-CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-    item_id BIGINT NOT NULL,
-    booker_id BIGINT NOT NULL,
-    status VARCHAR(50) NOT NULL,
-    CONSTRAINT pk_booking PRIMARY KEY (id),
-    CONSTRAINT fk_bookings_to_items FOREIGN KEY (item_id) REFERENCES items (id),
-    CONSTRAINT fk_bookings_to_users FOREIGN KEY (booker_id) REFERENCES users (id)
-);
-
 CREATE TABLE IF NOT EXISTS comments (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     text VARCHAR(512) NOT NULL,
@@ -42,11 +33,67 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT fk_comments_to_users FOREIGN KEY (author_id) REFERENCES users (id)
 );
 
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    archived_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_booking_archive PRIMARY KEY (id),
+    CONSTRAINT fk_bookings_archive_to_items FOREIGN KEY (item_id) REFERENCES items (id),
+    CONSTRAINT fk_bookings_archive_to_users FOREIGN KEY (booker_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS item_stats (
+    item_id BIGINT NOT NULL,
+    comment_count BIGINT DEFAULT 0 NOT NULL,
+    last_comment_at TIMESTAMP WITHOUT TIME ZONE,
+    waiting_count BIGINT DEFAULT 0 NOT NULL,
+    approved_count BIGINT DEFAULT 0 NOT NULL,
+    rejected_count BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_item_stats PRIMARY KEY (item_id),
+    CONSTRAINT fk_item_stats_to_items FOREIGN KEY (item_id) REFERENCES items (id)
+);
+
+CREATE TABLE IF NOT EXISTS comment_eligibility (
+    booker_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    CONSTRAINT pk_comment_eligibility PRIMARY KEY (booker_id, item_id)
+);
+
+CREATE TABLE IF NOT EXISTS job_watermarks (
+    name VARCHAR(100) NOT NULL,
+    watermark TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_job_watermark PRIMARY KEY (name)
+);
+
+CREATE TABLE IF NOT EXISTS user_deletions (
+    user_id BIGINT NOT NULL,
+    stage VARCHAR(50) NOT NULL,
+    processed BIGINT DEFAULT 0 NOT NULL,
+    requested_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    finished_at TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_user_deletion PRIMARY KEY (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload VARCHAR(8000) NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_outbox_event PRIMARY KEY (id)
+);
+
 CREATE INDEX IF NOT EXISTS idx_users_email ON users (email);
 CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id);
-CREATE INDEX IF NOT EXISTS idx_booking_booker ON bookings (booker_id);
-CREATE INDEX IF NOT EXISTS idx_booking_item ON bookings (item_id);
-CREATE INDEX IF NOT EXISTS idx_booking_end_date ON bookings (end_date);
-CREATE INDEX IF NOT EXISTS idx_booking_start_date ON bookings (start_date);
-CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id);
-CREATE INDEX IF NOT EXISTS idx_comments_author_id ON comments (author_id);
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created, id);
+CREATE INDEX IF NOT EXISTS idx_comments_author_id ON comments (author_id);
+CREATE INDEX IF NOT EXISTS idx_booking_archive_booker ON bookings_archive (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_booking_archive_item ON bookings_archive (item_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_comment_eligibility_item ON comment_eligibility (item_id);
+CREATE INDEX IF NOT EXISTS idx_user_deletions_stage ON user_deletions (stage);
\ No newline at end of file
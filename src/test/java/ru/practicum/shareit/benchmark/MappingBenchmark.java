@@ -0,0 +1,146 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingField;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.status.BookingPhase;
+import ru.practicum.shareit.booking.status.BookingStatus;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Сравнение маппинга ItemWithBookingDto и CommentDto через сеттеры (как было в ItemServiceImpl)
+ * и через конструкторы. Бронирования и до этого собирались конструктором, поэтому для них
+ * замеряется только текущий маппинг, без базовой линии.
+ * Запуск: main этого класса из тестового classpath; аллокации смотреть в gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private static final int ITEMS = 5;
+    private static final int BOOKINGS = 100;
+    private static final int COMMENTS = 10;
+
+    private Booking booking;
+    private List<Booking> bookings;
+    private Item item;
+    private List<Comment> comments;
+    private Set<BookingField> allFields;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = new User(1L, "owner", "owner@mail.ru", false, 0L);
+        User booker = new User(2L, "booker", "booker@mail.ru", false, 0L);
+
+        List<Item> items = new ArrayList<>(ITEMS);
+        for (long i = 1; i <= ITEMS; i++) {
+            items.add(new Item(i, "item " + i, "description " + i, true, owner, 0L));
+        }
+        item = items.get(0);
+
+        bookings = new ArrayList<>(BOOKINGS);
+        for (long i = 1; i <= BOOKINGS; i++) {
+            bookings.add(new Booking(i, now.plusDays(i), now.plusDays(i + 1), items.get((int) (i % ITEMS)),
+                    booker, BookingStatus.APPROVED, BookingPhase.FUTURE, 0L));
+        }
+        booking = bookings.get(0);
+
+        comments = new ArrayList<>(COMMENTS);
+        for (long i = 1; i <= COMMENTS; i++) {
+            comments.add(new Comment(i, "comment " + i, item, booker, now));
+        }
+
+        allFields = BookingField.all();
+    }
+
+    @Benchmark
+    public BookingDto bookingConstructor() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingListConstructor() {
+        return BookingMapper.toBookingDtos(bookings, allFields);
+    }
+
+    @Benchmark
+    public ItemWithBookingDto itemWithBookingLegacy() {
+        List<CommentDto> commentDtos = comments.stream()
+                .map(MappingBenchmark::legacyCommentDto)
+                .collect(Collectors.toList());
+        BookingDto bookingDto = BookingMapper.toBookingDto(booking);
+        return legacyItemWithBookingDto(item, bookingDto, bookingDto, commentDtos);
+    }
+
+    @Benchmark
+    public ItemWithBookingDto itemWithBookingConstructor() {
+        List<CommentDto> commentDtos = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            commentDtos.add(CommentMapper.toCommentDto(comment));
+        }
+        BookingDto bookingDto = BookingMapper.toBookingDto(booking);
+        return ItemMapper.toItemWithBookingDto(item, bookingDto, bookingDto, commentDtos);
+    }
+
+    private static ItemWithBookingDto legacyItemWithBookingDto(Item item, BookingDto lastBooking,
+                                                               BookingDto nextBooking, List<CommentDto> comments) {
+        ItemWithBookingDto dto = new ItemWithBookingDto();
+        dto.setId(item.getId());
+        dto.setName(item.getName());
+        dto.setDescription(item.getDescription());
+        dto.setAvailable(item.getAvailable());
+        dto.setLastBooking(lastBooking);
+        dto.setNextBooking(nextBooking);
+        dto.setComments(comments);
+        return dto;
+    }
+
+    private static CommentDto legacyCommentDto(Comment comment) {
+        CommentDto dto = new CommentDto();
+        dto.setId(comment.getId());
+        dto.setText(comment.getText());
+        dto.setAuthorName(comment.getAuthor().getName());
+        dto.setCreated(comment.getCreated());
+        return dto;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
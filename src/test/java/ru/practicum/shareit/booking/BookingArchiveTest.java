@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingField;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingArchiver;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.status.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookingArchiveTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingArchiver bookingArchiver;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void archivedRejectedBookingIsStillListedAsRejected() {
+        String run = Long.toString(System.nanoTime());
+        Long ownerId = userService.createUser(new UserDto(null, "owner", "owner" + run + "@mail.ru")).getId();
+        Long bookerId = userService.createUser(new UserDto(null, "booker", "booker" + run + "@mail.ru")).getId();
+        Long itemId = itemService.createItem(ownerId, new ItemDto(null, "Дрель", "Простая дрель", true)).getId();
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Long bookingId = bookingService.createBooking(bookerId,
+                new BookingCreateDto(start, start.plusDays(1), itemId)).getId();
+        bookingService.updateBookingStatus(ownerId, bookingId, false);
+
+        LocalDateTime longAgo = LocalDateTime.now().minusYears(1);
+        jdbcTemplate.update("UPDATE bookings SET start_date = ?, end_date = ?, phase = 'PAST' WHERE id = ?",
+                longAgo, longAgo.plusDays(1), bookingId);
+        bookingArchiver.archiveEndedBookings();
+
+        assertFalse(bookingRepository.existsById(bookingId));
+        assertTrue(ids(bookingService.getBookingsByUser(bookerId, BookingStatus.REJECTED, BookingField.all()))
+                .contains(bookingId));
+        assertTrue(ids(bookingService.getBookingsByOwner(ownerId, BookingStatus.REJECTED, Set.of()))
+                .contains(bookingId));
+        assertFalse(ids(bookingService.getBookingsByUser(bookerId, BookingStatus.WAITING, BookingField.all()))
+                .contains(bookingId));
+    }
+
+    private static List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream()
+                .map(BookingDto::getId)
+                .collect(Collectors.toList());
+    }
+}
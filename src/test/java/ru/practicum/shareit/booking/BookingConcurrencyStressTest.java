@@ -0,0 +1,179 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.status.BookingStatus;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 1000 одновременных заявок на один предмет: половина пересекается с одобренным бронированием
+ * и должна получить конфликт, вторая половина создаётся. Затем все созданные заявки одобряются
+ * одновременно — одобрено должно быть не больше одной.
+ * <p>
+ * Настройки блокировок штатные: все запросы идут в одну полосу ItemLocks, и те, кто не дождался
+ * её за timeout-ms, получают ServiceOverloadedException (503). Это ожидаемый сброс нагрузки, его доля
+ * пишется в лог; проверяется, что он не нарушает инварианты. Если одобрение не прошло ни одно,
+ * то только потому, что все попытки были сброшены.
+ * Запуск: mvn -Pstress test, в обычный прогон тест не входит.
+ */
+@Slf4j
+@Tag("stress")
+@SpringBootTest
+class BookingConcurrencyStressTest {
+
+    private static final int REQUESTS = 1000;
+    private static final int THREADS = 32;
+    private static final int BOOKERS = 10;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void concurrentBookingsOnOneItem() throws InterruptedException {
+        String run = Long.toString(System.nanoTime());
+        Long ownerId = userService.createUser(new UserDto(null, "owner", "owner" + run + "@mail.ru")).getId();
+        Long itemId = itemService.createItem(ownerId, new ItemDto(null, "Дрель", "Популярная дрель", true)).getId();
+        List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookerIds.add(userService.createUser(
+                    new UserDto(null, "booker" + i, "booker" + i + "-" + run + "@mail.ru")).getId());
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        BookingDto taken = bookingService.createBooking(bookerIds.get(0),
+                new BookingCreateDto(base.plusDays(10), base.plusDays(11), itemId));
+        bookingService.updateBookingStatus(ownerId, taken.getId(), true);
+
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger shed = new AtomicInteger();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        long startedAt = System.nanoTime();
+        runConcurrently(REQUESTS, i -> {
+            boolean overlapsApproved = i % 2 == 0;
+            LocalDateTime start = overlapsApproved ? base.plusDays(10).plusHours(1) : base;
+            try {
+                bookingService.createBooking(bookerIds.get(i % BOOKERS),
+                        new BookingCreateDto(start, start.plusHours(2), itemId));
+                if (overlapsApproved) {
+                    failures.add(new AssertionError("Создана заявка, пересекающаяся с одобренной: " + i));
+                }
+                created.incrementAndGet();
+            } catch (BookingConflictException e) {
+                if (!overlapsApproved) {
+                    failures.add(e);
+                }
+                conflicts.incrementAndGet();
+            } catch (ServiceOverloadedException e) {
+                shed.incrementAndGet();
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        });
+        long createMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        log.info("Создание: {} заявок за {} мс, создано {}, конфликтов {}, сброшено по таймауту {} ({}%)",
+                REQUESTS, createMillis, created.get(), conflicts.get(), shed.get(), shed.get() * 100 / REQUESTS);
+
+        assertTrue(failures.isEmpty(), () -> "Неожиданные ошибки: " + failures);
+        assertEquals(REQUESTS, created.get() + conflicts.get() + shed.get());
+
+        List<Long> waiting = bookingRepository.findByItemIdInAndStatus(List.of(itemId), BookingStatus.WAITING).stream()
+                .map(Booking::getId)
+                .toList();
+        assertEquals(created.get(), waiting.size());
+
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger approvalsShed = new AtomicInteger();
+        startedAt = System.nanoTime();
+        runConcurrently(waiting.size(), i -> {
+            try {
+                bookingService.updateBookingStatus(ownerId, waiting.get(i), true);
+                approved.incrementAndGet();
+            } catch (BookingConflictException e) {
+                rejected.incrementAndGet();
+            } catch (ServiceOverloadedException e) {
+                approvalsShed.incrementAndGet();
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        });
+        long approveMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        log.info("Одобрение: {} заявок за {} мс, одобрено {}, конфликтов {}, сброшено по таймауту {}",
+                waiting.size(), approveMillis, approved.get(), rejected.get(), approvalsShed.get());
+
+        assertTrue(failures.isEmpty(), () -> "Неожиданные ошибки: " + failures);
+        assertTrue(approved.get() <= 1, "Одобрено несколько пересекающихся заявок");
+        assertTrue(approved.get() == 1 || approvalsShed.get() == waiting.size(),
+                "Ни одна заявка не одобрена, хотя не все попытки сброшены");
+        assertEquals(waiting.size(), approved.get() + rejected.get() + approvalsShed.get());
+        assertEquals(1 + approved.get(),
+                bookingRepository.findByItemIdInAndStatus(List.of(itemId), BookingStatus.APPROVED).size());
+    }
+
+    private void runConcurrently(int tasks, IndexedTask task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(tasks);
+        for (int i = 0; i < tasks; i++) {
+            int index = i;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    task.run(index);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        try {
+            assertTrue(done.await(5, TimeUnit.MINUTES), "Задачи не завершились вовремя");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask {
+        void run(int index);
+    }
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.event.BookingPhaseChangedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingTimesView;
+import ru.practicum.shareit.booking.status.BookingPhase;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingLifecycleSchedulerTest {
+
+    private static final List<BookingPhase> NOT_PAST = List.of(BookingPhase.FUTURE, BookingPhase.CURRENT);
+
+    private BookingRepository bookingRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private BookingLifecycleScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        scheduler = new BookingLifecycleScheduler(bookingRepository, transactionTemplate, eventPublisher);
+        ReflectionTestUtils.setField(scheduler, "horizonMinutes", 10L);
+        ReflectionTestUtils.setField(scheduler, "batchSize", 2);
+        ReflectionTestUtils.setField(scheduler, "catchUpBatches", 5);
+        ReflectionTestUtils.setField(scheduler, "maxQueued", 2);
+        when(bookingRepository.lockIdsInPhases(anyCollection(), anyCollection()))
+                .thenAnswer(invocation -> List.copyOf(invocation.<Collection<Long>>getArgument(0)));
+    }
+
+    @Test
+    void phaseFollowsStartAndEnd() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(BookingPhase.FUTURE, BookingPhase.of(now.plusHours(1), now.plusHours(2), now));
+        assertEquals(BookingPhase.CURRENT, BookingPhase.of(now.minusHours(1), now.plusHours(1), now));
+        assertEquals(BookingPhase.PAST, BookingPhase.of(now.minusHours(2), now.minusHours(1), now));
+    }
+
+    @Test
+    void overdueBookingsAreMovedInBatchesUntilDrained() {
+        LocalDateTime past = LocalDateTime.now().minusHours(1);
+        when(bookingRepository.findByPhaseAndStartBefore(eq(BookingPhase.FUTURE), any(), any(Pageable.class)))
+                .thenReturn(List.of(times(1L, past, past), times(2L, past, past)),
+                        List.of(times(3L, past, past)),
+                        List.of());
+        when(bookingRepository.findByPhaseInAndEndBefore(eq(NOT_PAST), any(), any(Pageable.class)))
+                .thenReturn(List.of(times(1L, past, past), times(2L, past, past)),
+                        List.of(times(3L, past, past)),
+                        List.of());
+
+        scheduler.loadUpcoming();
+
+        verify(bookingRepository).updatePhase(List.of(1L, 2L), BookingPhase.CURRENT, List.of(BookingPhase.FUTURE));
+        verify(bookingRepository).updatePhase(List.of(3L), BookingPhase.CURRENT, List.of(BookingPhase.FUTURE));
+        verify(bookingRepository).updatePhase(List.of(1L, 2L), BookingPhase.PAST, NOT_PAST);
+        verify(bookingRepository).updatePhase(List.of(3L), BookingPhase.PAST, NOT_PAST);
+        verify(eventPublisher).publishEvent(new BookingPhaseChangedEvent(List.of(3L), BookingPhase.PAST));
+    }
+
+    @Test
+    void registeredBookingStartsWhenItsStartIsDue() {
+        when(bookingRepository.findByPhaseAndStartBefore(eq(BookingPhase.FUTURE), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(bookingRepository.findByPhaseInAndEndBefore(eq(NOT_PAST), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+        scheduler.loadUpcoming();
+
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = new Booking();
+        booking.setId(7L);
+        booking.setStart(now.minusSeconds(1));
+        booking.setEnd(now.plusDays(1));
+        booking.setPhase(BookingPhase.FUTURE);
+        scheduler.register(booking);
+
+        scheduler.applyDueTransitions();
+
+        verify(bookingRepository).updatePhase(List.of(7L), BookingPhase.CURRENT, List.of(BookingPhase.FUTURE));
+        verify(bookingRepository, never()).updatePhase(anyList(), eq(BookingPhase.PAST), anyList());
+        verify(eventPublisher).publishEvent(new BookingPhaseChangedEvent(List.of(7L), BookingPhase.CURRENT));
+    }
+
+    @Test
+    void bookingsAlreadyMovedElsewhereAreNotPublished() {
+        LocalDateTime past = LocalDateTime.now().minusHours(1);
+        when(bookingRepository.findByPhaseAndStartBefore(eq(BookingPhase.FUTURE), any(), any(Pageable.class)))
+                .thenReturn(List.of(times(1L, past, past), times(2L, past, past)), List.of());
+        when(bookingRepository.findByPhaseInAndEndBefore(eq(NOT_PAST), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(bookingRepository.lockIdsInPhases(List.of(1L, 2L), List.of(BookingPhase.FUTURE.name())))
+                .thenReturn(List.of(2L));
+
+        scheduler.loadUpcoming();
+
+        verify(bookingRepository).updatePhase(List.of(2L), BookingPhase.CURRENT, List.of(BookingPhase.FUTURE));
+        verify(eventPublisher).publishEvent(new BookingPhaseChangedEvent(List.of(2L), BookingPhase.CURRENT));
+        verify(eventPublisher, never()).publishEvent(new BookingPhaseChangedEvent(List.of(1L, 2L),
+                BookingPhase.CURRENT));
+    }
+
+    @Test
+    void fullUpcomingPageShrinksLoadedHorizon() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.findByPhaseAndStartBefore(eq(BookingPhase.FUTURE), any(), any(Pageable.class)))
+                .thenReturn(List.of(),
+                        List.of(times(1L, now.plusMinutes(1), now.plusDays(1)),
+                                times(2L, now.plusMinutes(2), now.plusDays(1))));
+        when(bookingRepository.findByPhaseInAndEndBefore(eq(NOT_PAST), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        scheduler.loadUpcoming();
+
+        assertEquals(now.plusMinutes(2), ReflectionTestUtils.getField(scheduler, "loadedUntil"));
+    }
+
+    private static BookingTimesView times(Long id, LocalDateTime start, LocalDateTime end) {
+        return new BookingTimesView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+}
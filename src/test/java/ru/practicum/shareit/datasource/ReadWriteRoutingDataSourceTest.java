@@ -0,0 +1,77 @@
+package ru.practicum.shareit.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private ReadYourWritesTracker tracker;
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ReadYourWritesTracker();
+        ReflectionTestUtils.setField(tracker, "stickinessMillis", 60_000L);
+        routing = new ReadWriteRoutingDataSource(tracker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        RequestUserContext.clear();
+        PrimaryReadContext.clear();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        RequestUserContext.setUserId(1L);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(DataSourceRole.REPLICA, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void writeTransactionGoesToPrimaryAndMakesUserSticky() {
+        RequestUserContext.setUserId(1L);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertEquals(DataSourceRole.PRIMARY, routing.determineCurrentLookupKey());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(DataSourceRole.PRIMARY, routing.determineCurrentLookupKey());
+
+        RequestUserContext.setUserId(2L);
+        assertEquals(DataSourceRole.REPLICA, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void stickinessExpires() {
+        ReflectionTestUtils.setField(tracker, "stickinessMillis", -1L);
+        tracker.recordWrite(1L);
+        RequestUserContext.setUserId(1L);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(DataSourceRole.REPLICA, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void forcedPrimaryReadDoesNotMakeUserSticky() {
+        RequestUserContext.setUserId(1L);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        PrimaryReadContext.force();
+
+        assertEquals(DataSourceRole.PRIMARY, routing.determineCurrentLookupKey());
+
+        PrimaryReadContext.clear();
+        assertEquals(DataSourceRole.REPLICA, routing.determineCurrentLookupKey());
+    }
+}
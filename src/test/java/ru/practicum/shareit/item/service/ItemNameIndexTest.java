@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.event.ItemChangeType;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.repository.ItemNameView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemNameIndexTest {
+
+    private ItemRepository itemRepository;
+    private ItemNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        index = new ItemNameIndex(itemRepository, 100, 48, 4, 5);
+    }
+
+    @Test
+    void findsByPrefixOfWholeNameIgnoringCase() {
+        rebuildWith(name(1L, "Дрель"), name(2L, "Дрезина"), name(3L, "Пила"));
+
+        assertEquals(List.of(2L, 1L), ids(index.suggest("ДРЕ", 5)));
+        assertEquals(List.of(3L), ids(index.suggest("  пи ", 5)));
+        assertTrue(index.suggest("молоток", 5).isEmpty());
+    }
+
+    @Test
+    void findsByPrefixOfFollowingWords() {
+        rebuildWith(name(1L, "Аккумуляторная дрель Bosch"));
+
+        assertEquals(List.of(1L), ids(index.suggest("дре", 5)));
+        assertEquals(List.of(1L), ids(index.suggest("bosch", 5)));
+        assertEquals(List.of(1L), ids(index.suggest("аккумуляторная др", 5)));
+        assertTrue(index.suggest("ль", 5).isEmpty());
+    }
+
+    @Test
+    void stopsAtLimitAndRejectsLimitAboveMax() {
+        rebuildWith(name(1L, "Лопата 1"), name(2L, "Лопата 2"), name(3L, "Лопата 3"));
+
+        assertEquals(2, index.suggest("лоп", 2).size());
+        assertThrows(ValidationException.class, () -> index.suggest("лоп", 6));
+        assertThrows(ValidationException.class, () -> index.suggest("лоп", 0));
+    }
+
+    @Test
+    void addsUpdatesAndRemovesOnCatalogChanges() {
+        rebuildWith(name(1L, "Дрель"));
+
+        when(itemRepository.findAvailableNamesByIdIn(List.of(2L))).thenReturn(List.of(name(2L, "Дрезина")));
+        index.onItemChanged(new ItemChangedEvent(List.of(2L), ItemChangeType.CREATED));
+        assertEquals(List.of(2L, 1L), ids(index.suggest("дре", 5)));
+
+        when(itemRepository.findAvailableNamesByIdIn(List.of(1L))).thenReturn(List.of(name(1L, "Перфоратор")));
+        index.onItemChanged(new ItemChangedEvent(List.of(1L), ItemChangeType.UPDATED));
+        assertEquals(List.of(2L), ids(index.suggest("дре", 5)));
+        assertEquals(List.of(1L), ids(index.suggest("перф", 5)));
+
+        index.onItemChanged(new ItemChangedEvent(List.of(2L), ItemChangeType.DELETED));
+        assertTrue(index.suggest("дре", 5).isEmpty());
+    }
+
+    @Test
+    void changeDuringRebuildIsNotLostBehindTheSnapshot() {
+        when(itemRepository.findAvailableNamesByIdIn(anyCollection())).thenReturn(List.of());
+        when(itemRepository.findAvailableNames(any(Pageable.class))).thenAnswer(invocation -> {
+            index.onItemChanged(new ItemChangedEvent(List.of(1L), ItemChangeType.UPDATED));
+            return List.of(name(1L, "Дрель"));
+        });
+
+        index.rebuild();
+
+        assertTrue(index.suggest("дре", 5).isEmpty());
+    }
+
+    private void rebuildWith(ItemNameView... items) {
+        when(itemRepository.findAvailableNames(any(Pageable.class))).thenReturn(List.of(items));
+        index.rebuild();
+    }
+
+    private static List<Long> ids(List<ItemSuggestionDto> suggestions) {
+        return suggestions.stream()
+                .map(ItemSuggestionDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static ItemNameView name(Long id, String name) {
+        return new ItemNameView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}